@@ -0,0 +1,22 @@
+package com.alejanf.skynet.benchmark;
+
+import com.alejanf.skynet.jwt.JwtTokenProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// Construcción de componentes fuera del contexto de Spring para los benchmarks
+final class BenchmarkSupport {
+
+    static final String JWT_SECRET = "mySecretKeyThatIsAtLeast32BytesLongForHS256AlgorithmSecureKey123";
+
+    private BenchmarkSupport() {
+    }
+
+    static JwtTokenProvider jwtTokenProvider(long claimsCacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", claimsCacheMaxSize);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,86 @@
+package com.alejanf.skynet.benchmark;
+
+import com.alejanf.skynet.jwt.JwtAuthenticationFilter;
+import com.alejanf.skynet.jwt.JwtTokenProvider;
+import com.alejanf.skynet.jwt.UserPrincipalCache;
+import com.alejanf.skynet.model.Role;
+import com.alejanf.skynet.model.User;
+import com.alejanf.skynet.repository.UserRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Filtro JWT completo con un UserRepository simulado (sin latencia de red)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String USER_ID = "64b000000000000000000001";
+    private static final String EMAIL = "bench@skynet.dev";
+
+    // 0 = sin caché de principales: cada petición consulta el repositorio
+    @Param({"0", "60"})
+    public long principalCacheTtlSeconds;
+
+    private JwtAuthenticationFilter filter;
+    private Cookie jwtCookie;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        user.setRole(Role.USER);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+
+        UserPrincipalCache principalCache = new UserPrincipalCache(userRepository);
+        ReflectionTestUtils.setField(principalCache, "ttlSeconds", principalCacheTtlSeconds);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(principalCache, "init");
+
+        JwtTokenProvider tokenProvider = BenchmarkSupport.jwtTokenProvider(10_000);
+        filter = new JwtAuthenticationFilter(tokenProvider, principalCache);
+        jwtCookie = new Cookie("jwt", tokenProvider.generateToken(EMAIL, USER_ID));
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setCookies(jwtCookie);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.alejanf.skynet.benchmark;
+
+import com.alejanf.skynet.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = BenchmarkSupport.jwtTokenProvider(10_000);
+        // Con tamaño 0 cada validación vuelve a verificar la firma (comportamiento sin caché)
+        uncachedProvider = BenchmarkSupport.jwtTokenProvider(0);
+        token = cachedProvider.generateToken("bench@skynet.dev", "64b000000000000000000001");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken("bench@skynet.dev", "64b000000000000000000001");
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return cachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        return uncachedProvider.validateToken(token);
+    }
+}
@@ -0,0 +1,88 @@
+package com.alejanf.skynet.benchmark;
+
+import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderProduct;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Totales guardados frente al cálculo con streams que hacía Order antes, y serialización JSON de la orden
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"10", "500"})
+    public int lines;
+
+    private Order order;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        List<OrderProduct> orderProducts = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setProductId("p-" + i);
+            orderProduct.setVariantId("v-" + i);
+            orderProduct.setProductName("Product " + i);
+            orderProduct.setPrice(new BigDecimal("19.99"));
+            orderProduct.setQuantity(1 + i % 5);
+            orderProduct.setDiscount(new BigDecimal("0.50"));
+            orderProducts.add(orderProduct);
+        }
+
+        Address address = new Address();
+        address.setStreet("Gran Via 1");
+        address.setCity("Madrid");
+        address.setPostalCode("28013");
+        address.setCountry("ES");
+
+        order = new Order();
+        order.setUserId("64b000000000000000000001");
+        order.setDeliveryAddress(address);
+        order.setOrderProducts(orderProducts);
+
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public BigDecimal storedTotalPrice() {
+        return order.getTotalPrice();
+    }
+
+    // Implementación anterior de Order.getTotalPrice(), como referencia
+    @Benchmark
+    public BigDecimal streamTotalPrice() {
+        return order.getOrderProducts().stream()
+                .map(line -> line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())).subtract(line.getDiscount()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws Exception {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
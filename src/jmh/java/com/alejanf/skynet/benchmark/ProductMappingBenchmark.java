@@ -0,0 +1,112 @@
+package com.alejanf.skynet.benchmark;
+
+import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.model.Product;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Mapeo de una página de productos: documento completo + ProductDTO.fromEntity frente a la proyección
+// de ProductSummaryDTO. Ejecutar con "-prof gc" para ver los bytes asignados por operación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private static final List<String> SUMMARY_FIELDS =
+            List.of("_id", "name", "price", "imageUrl", "rating", "slug", "stockTotal", "version", "updatedAt");
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private MappingMongoConverter converter;
+    private List<Product> products;
+    private List<Document> fullDocuments;
+    private List<Document> projectedDocuments;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        products = new ArrayList<>(pageSize);
+        fullDocuments = new ArrayList<>(pageSize);
+        projectedDocuments = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Product product = product(i);
+            products.add(product);
+
+            Document full = new Document();
+            converter.write(product, full);
+            fullDocuments.add(full);
+
+            Document projected = new Document();
+            SUMMARY_FIELDS.forEach(field -> projected.put(field, full.get(field)));
+            projectedDocuments.add(projected);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> fromEntity() {
+        return products.stream().map(ProductDTO::fromEntity).toList();
+    }
+
+    @Benchmark
+    public List<ProductDTO> readFullDocumentsAndMap() {
+        List<ProductDTO> page = new ArrayList<>(pageSize);
+        for (Document document : fullDocuments) {
+            page.add(ProductDTO.fromEntity(converter.read(Product.class, document)));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<ProductSummaryDTO> readProjectedSummaries() {
+        List<ProductSummaryDTO> page = new ArrayList<>(pageSize);
+        for (Document document : projectedDocuments) {
+            page.add(converter.read(ProductSummaryDTO.class, document));
+        }
+        return page;
+    }
+
+    private static Product product(int i) {
+        Product product = new Product();
+        product.setId(String.format("64b%021d", i));
+        product.setName("Product " + i);
+        product.setDescription("A reasonably long product description used to make the document realistic. ".repeat(4));
+        product.setPrice(new BigDecimal("49.95"));
+        product.setStockTotal(100 + i);
+        product.setCategoryId("64c000000000000000000001");
+        product.setVariantIds(List.of("v-" + i + "-s", "v-" + i + "-m", "v-" + i + "-l"));
+        product.setImageUrl("https://cdn.skynet.dev/products/" + i + ".jpg");
+        product.setTags(Set.of("summer", "cotton", "sale"));
+        product.setRating(4.3);
+        product.setRatingCount(120);
+        product.setSlug("product-" + i);
+        product.setVersion(3L);
+        return product;
+    }
+}
@@ -0,0 +1,64 @@
+package com.alejanf.skynet.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Cachés en proceso del catálogo; recordStats() alimenta las métricas de hit/miss/eviction de Actuator
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";           // ProductDTO por id
+    public static final String PRODUCT_SLUGS = "productSlugs";   // slug -> id
+    public static final String PRODUCT_PAGES = "productPages";   // páginas de listados
+    public static final String PRODUCT_SEARCH = "productSearch"; // resultados de búsquedas frecuentes
+    public static final String CATEGORIES = "categories";
+
+    @Value("${skynet.cache.products.max-size:10000}")
+    private long productsMaxSize;
+
+    @Value("${skynet.cache.products.ttl-seconds:300}")
+    private long productsTtlSeconds;
+
+    @Value("${skynet.cache.product-pages.max-size:500}")
+    private long productPagesMaxSize;
+
+    @Value("${skynet.cache.product-pages.ttl-seconds:30}")
+    private long productPagesTtlSeconds;
+
+    @Value("${skynet.cache.product-search.max-size:2000}")
+    private long productSearchMaxSize;
+
+    @Value("${skynet.cache.product-search.ttl-seconds:30}")
+    private long productSearchTtlSeconds;
+
+    @Value("${skynet.cache.categories.ttl-seconds:600}")
+    private long categoriesTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCTS, buildCache(productsMaxSize, productsTtlSeconds));
+        cacheManager.registerCustomCache(PRODUCT_SLUGS, buildCache(productsMaxSize, productsTtlSeconds));
+        cacheManager.registerCustomCache(PRODUCT_PAGES, buildCache(productPagesMaxSize, productPagesTtlSeconds));
+        cacheManager.registerCustomCache(PRODUCT_SEARCH, buildCache(productSearchMaxSize, productSearchTtlSeconds));
+        cacheManager.registerCustomCache(CATEGORIES, buildCache(1000, categoriesTtlSeconds));
+        return cacheManager;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> buildCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.alejanf.skynet.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    // Con hilos virtuales el límite de concurrencia hacia Mongo deja de ser el pool de Tomcat,
+    // así que el pool de conexiones se dimensiona aparte y la espera por conexión se acota
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${skynet.mongo.pool.max-size:100}") int platformMaxSize,
+            @Value("${skynet.mongo.pool.virtual-max-size:500}") int virtualMaxSize,
+            @Value("${skynet.mongo.pool.max-wait-ms:2000}") long maxWaitMs) {
+        int maxSize = virtualThreads ? virtualMaxSize : platformMaxSize;
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,74 @@
+package com.alejanf.skynet.config;
+
+import com.mongodb.MongoCommandException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+// Crea al arrancar los índices declarados en los modelos (@Indexed, @CompoundIndex...)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mongoMappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+
+        for (MongoPersistentEntity<?> entity : mongoMappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                try {
+                    ensureIndex(indexOps, index);
+                } catch (RuntimeException e) {
+                    // No bloqueamos el arranque si Mongo no está disponible o un índice choca con uno existente
+                    log.warn("Could not ensure index {} on {}: {}", index.getIndexOptions().get("name"),
+                            entity.getCollection(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Si un índice con el mismo nombre existe con otras claves (p. ej. al añadir _id como desempate),
+    // se reemplaza: sin esto la definición nueva no llegaría nunca a Mongo
+    private void ensureIndex(IndexOperations indexOps, IndexDefinition index) {
+        try {
+            indexOps.ensureIndex(index);
+        } catch (RuntimeException e) {
+            Object name = index.getIndexOptions().get("name");
+            if (name == null || !isKeySpecsConflict(e)) {
+                throw e;
+            }
+            log.info("Replacing index {} with its new definition {}", name, index.getIndexKeys().toJson());
+            indexOps.dropIndex(name.toString());
+            indexOps.ensureIndex(index);
+        }
+    }
+
+    private static boolean isKeySpecsConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoCommandException command && command.getErrorCode() == INDEX_KEY_SPECS_CONFLICT) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
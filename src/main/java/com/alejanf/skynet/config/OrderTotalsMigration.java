@@ -0,0 +1,67 @@
+package com.alejanf.skynet.config;
+
+import com.alejanf.skynet.model.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Pedidos anteriores a Order.totalPrice/totalQuantity: el informe de ingresos suma esos campos en Mongo y
+// sin ellos los pedidos antiguos no cuentan. Se calculan con la misma fórmula que OrderProduct
+// (precio * cantidad - descuento). Es idempotente: tras la primera ejecución no encuentra nada que actualizar.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderTotalsMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skynet.migrations.order-totals.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTotals() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Document filter = new Document("$or", List.of(
+                    new Document("totalPrice", null), new Document("totalQuantity", null)));
+            Document totals = new Document("totalPrice", new Document("$toDecimal", sumOfLines(lineTotal())))
+                    .append("totalQuantity", sumOfLines(new Document("$ifNull", List.of("$$line.quantity", 0))));
+
+            AggregationOperation stage = context -> new Document("$set", totals);
+            long updated = mongoTemplate.updateMulti(new BasicQuery(filter), AggregationUpdate.from(List.of(stage)),
+                    mongoTemplate.getCollectionName(Order.class)).getModifiedCount();
+            if (updated > 0) {
+                log.info("Backfilled totals for {} orders", updated);
+            }
+        } catch (RuntimeException e) {
+            // Igual que los índices: no se bloquea el arranque si Mongo no está disponible
+            log.warn("Could not backfill order totals: {}", e.getMessage());
+        }
+    }
+
+    private static Document sumOfLines(Object lineValue) {
+        Document lines = new Document("$ifNull", List.of("$orderProducts", List.of()));
+        return new Document("$sum", new Document("$map", new Document("input", lines)
+                .append("as", "line")
+                .append("in", lineValue)));
+    }
+
+    // El total guardado en la línea si existe; si no, se calcula
+    private static Document lineTotal() {
+        Document gross = new Document("$multiply", List.of(new Document("$toDecimal", "$$line.price"), "$$line.quantity"));
+        Document discount = new Document("$toDecimal", new Document("$ifNull", List.of("$$line.discount", 0)));
+        return new Document("$ifNull", List.of("$$line.totalPrice", new Document("$subtract", List.of(gross, discount))));
+    }
+}
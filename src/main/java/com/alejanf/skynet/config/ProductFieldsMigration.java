@@ -0,0 +1,62 @@
+package com.alejanf.skynet.config;
+
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Productos anteriores a price como Decimal128: un precio guardado como texto (o como double) mezcla tipos
+// BSON y rompe las ordenaciones y rangos por precio. También rellena createdAt y rating, que las claves de
+// ordenación por cursor necesitan. Es idempotente: tras la primera ejecución no encuentra nada que actualizar.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductFieldsMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skynet.migrations.product-fields.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0) // Antes que los índices y backfills que leen estos campos
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long prices = update(new Document("price", new Document("$ne", null).append("$not", new Document("$type", "decimal"))),
+                    new Document("price", new Document("$toDecimal", "$price")));
+            // El _id (ObjectId) lleva la fecha de creación del documento
+            long createdAt = update(new Document("createdAt", null),
+                    new Document("createdAt", new Document("$toDate", "$_id")));
+            long ratings = update(new Document("rating", null),
+                    new Document("rating", 0.0));
+            if (prices + createdAt + ratings > 0) {
+                log.info("Migrated products: {} prices to Decimal128, {} createdAt and {} rating backfilled",
+                        prices, createdAt, ratings);
+            }
+        } catch (RuntimeException e) {
+            // Igual que los índices: no se bloquea el arranque si Mongo no está disponible
+            log.warn("Could not migrate product fields: {}", e.getMessage());
+        }
+    }
+
+    // Sobre la colección y no sobre la entidad: así MongoTemplate no añade su propio $inc de version
+    private long update(Document filter, Document set) {
+        AggregationOperation stage = context -> new Document("$set", set);
+        return mongoTemplate.updateMulti(new BasicQuery(filter), AggregationUpdate.from(List.of(stage)),
+                mongoTemplate.getCollectionName(Product.class)).getModifiedCount();
+    }
+}
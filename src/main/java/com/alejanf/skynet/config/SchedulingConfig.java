@@ -0,0 +1,19 @@
+package com.alejanf.skynet.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+// Tareas periódicas en segundo plano (p. ej. el volcado del buffer de valoraciones)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // Reloj inyectable: los tests de expiración simulan el paso del tiempo
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
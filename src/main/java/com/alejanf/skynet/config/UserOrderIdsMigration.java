@@ -0,0 +1,48 @@
+package com.alejanf.skynet.config;
+
+import com.alejanf.skynet.model.User;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// User.orderIds ya no existe: el historial sale de la colección de pedidos (índice userId_createdAt).
+// Se elimina la lista de los documentos antiguos para que el usuario no arrastre su tamaño en cada save.
+// Es idempotente: tras la primera ejecución no encuentra nada que actualizar.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserOrderIdsMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${skynet.migrations.unset-user-order-ids.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void unsetOrderIds() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            UpdateResult result = mongoTemplate.updateMulti(
+                    query(where("orderIds").exists(true)),
+                    new Update().unset("orderIds"),
+                    User.class);
+            if (result.getModifiedCount() > 0) {
+                log.info("Removed embedded orderIds from {} users", result.getModifiedCount());
+            }
+        } catch (RuntimeException e) {
+            // Igual que los índices: no se bloquea el arranque si Mongo no está disponible
+            log.warn("Could not remove embedded orderIds from users: {}", e.getMessage());
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.alejanf.skynet.controller;
 import com.alejanf.skynet.dto.AuthResponseDTO;
 import com.alejanf.skynet.dto.LoginRequestDTO;
 import com.alejanf.skynet.dto.RegisterRequestDTO;
+import com.alejanf.skynet.exception.HashingCapacityExceededException;
 import com.alejanf.skynet.service.AuthService;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,29 +25,33 @@ public class AuthController {
 
     private final AuthService authService;
 
+    @Value("${security.bcrypt.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    // Register y login devuelven un CompletableFuture: el hilo de Tomcat se libera mientras se calcula BCrypt
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDTO> register(
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> register(
             @Valid @RequestBody RegisterRequestDTO request,
             HttpServletResponse response) {
         try {
-            AuthResponseDTO authResponse = authService.register(request, response);
-            return ResponseEntity.status(HttpStatus.CREATED).body(authResponse);
+            return authService.register(request, response)
+                    .thenApply(authResponse -> ResponseEntity.status(HttpStatus.CREATED).body(authResponse))
+                    .exceptionally(e -> errorResponse(e, HttpStatus.BAD_REQUEST));
         } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new AuthResponseDTO(e.getMessage(), null));
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.BAD_REQUEST));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(
             @Valid @RequestBody LoginRequestDTO request,
             HttpServletResponse response) {
         try {
-            AuthResponseDTO authResponse = authService.login(request, response);
-            return ResponseEntity.ok(authResponse);
+            return authService.login(request, response)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> errorResponse(e, HttpStatus.UNAUTHORIZED));
         } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new AuthResponseDTO(e.getMessage(), null));
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.UNAUTHORIZED));
         }
     }
 
@@ -50,5 +60,16 @@ public class AuthController {
         authService.logout(response);
         return ResponseEntity.ok(new AuthResponseDTO("Logout successful", null));
     }
-}
 
+    private ResponseEntity<AuthResponseDTO> errorResponse(Throwable error, HttpStatus status) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof HashingCapacityExceededException) {
+            // Pool de hashing saturado: fallar rápido y pedir al cliente que reintente
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(new AuthResponseDTO(cause.getMessage(), null));
+        }
+        return ResponseEntity.status(status)
+                .body(new AuthResponseDTO(cause.getMessage(), null));
+    }
+}
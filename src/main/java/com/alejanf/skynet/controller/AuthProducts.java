@@ -1,13 +1,27 @@
 package com.alejanf.skynet.controller;
 
+import com.alejanf.skynet.dto.AutocompleteDTO;
+import com.alejanf.skynet.dto.CursorPageDTO;
 import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.dto.ProductSearchCriteria;
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.dto.ProductVersionView;
+import com.alejanf.skynet.service.AutocompleteIndex;
+import com.alejanf.skynet.service.ProductETags;
+import com.alejanf.skynet.service.ProductSearchService;
 import com.alejanf.skynet.service.ProductService;
+import com.alejanf.skynet.service.ProductTextSearchService;
+import com.alejanf.skynet.service.ProductSortKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -15,10 +29,122 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 public class AuthProducts {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final ProductTextSearchService productTextSearchService;
+    private final AutocompleteIndex autocompleteIndex;
 
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(@NonNull Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+    public ResponseEntity<Page<ProductDTO>> getAllProducts(@NonNull Pageable pageable, WebRequest request) {
+        // El ETag sale de la misma página cacheada que se devuelve: un acierto de caché no toca Mongo
+        // y un 304 nunca valida un cuerpo distinto del que recibiría el cliente
+        Page<ProductDTO> page = productService.getAllProducts(pageable);
+        String eTag = ProductETags.ofPage(page);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(page);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Page<ProductSummaryDTO>> getProductSummaries(@NonNull Pageable pageable, WebRequest request) {
+        Page<ProductSummaryDTO> page = productService.getProductSummaries(pageable);
+        String eTag = ProductETags.ofPage(page);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(page);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsByCursor(
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        try {
+            ProductSortKey sortKey = ProductSortKey.from(sort);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(productService.getProductsByCursor(sortKey, Sort.Direction.fromString(direction), pageSize, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductSummaryDTO>> searchProducts(
+            @ModelAttribute ProductSearchCriteria criteria,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            ProductSortKey sortKey = ProductSortKey.from(sort);
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(productSearchService.search(criteria, sortKey,
+                    Sort.Direction.fromString(direction), Math.max(page, 0), pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<List<ProductSummaryDTO>> searchProductsByText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(productTextSearchService.search(q.trim(), maxResults));
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<ProductSummaryDTO>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        // Con menos de dos caracteres el prefijo casa con demasiados productos
+        if (q.trim().length() < MIN_PREFIX_LENGTH) {
+            return ResponseEntity.ok(List.of());
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(productTextSearchService.suggest(q.trim(), maxResults));
+    }
+
+    // Responde desde el índice en memoria: no hay consulta a Mongo por pulsación
+    @GetMapping("/autocomplete")
+    public ResponseEntity<AutocompleteDTO> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(autocompleteIndex.suggest(q, maxResults));
+    }
+
+    @GetMapping("/{slug}")
+    public ResponseEntity<ProductDTO> getProductBySlug(@PathVariable String slug, WebRequest request) {
+        // Consulta solo de versión: con If-None-Match / If-Modified-Since válidos no se carga el documento
+        ProductVersionView version = productService.getProductVersion(slug);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = ProductETags.of(version);
+        long lastModified = ProductETags.lastModified(version);
+        if (request.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        ProductDTO product = productService.getProductBySlug(slug, version);
+        if (product == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        if (lastModified > 0) {
+            response.lastModified(lastModified);
+        }
+        return response.body(product);
     }
 }
@@ -0,0 +1,99 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.AddCartItemDTO;
+import com.alejanf.skynet.dto.CartDTO;
+import com.alejanf.skynet.dto.UpdateCartItemDTO;
+import com.alejanf.skynet.jwt.AuthenticatedUser;
+import com.alejanf.skynet.service.CartService;
+import com.alejanf.skynet.service.CartWriteBuffer;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class CartController {
+
+    private final CartService cartService;
+    private final CartWriteBuffer cartWriteBuffer;
+
+    @GetMapping
+    public ResponseEntity<CartDTO> getCart(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        cartWriteBuffer.drain(user.id());
+        return ResponseEntity.ok(cartService.getCart(user.id()));
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<CartDTO> addItem(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody AddCartItemDTO request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            cartWriteBuffer.drain(user.id());
+            return ResponseEntity.ok(cartService.addItem(user.id(), request.getVariantId(), request.getQuantity()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PutMapping("/items/{variantId}")
+    public ResponseEntity<CartDTO> updateQuantity(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String variantId,
+            @Valid @RequestBody UpdateCartItemDTO request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Con escritura diferida se acepta el cambio y se aplicará en el siguiente volcado
+        if (cartWriteBuffer.isEnabled()) {
+            if (!cartWriteBuffer.setQuantity(user.id(), variantId, request.getQuantity())) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+            return ResponseEntity.accepted().build();
+        }
+        try {
+            return ResponseEntity.ok(cartService.updateQuantity(user.id(), variantId, request.getQuantity()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/items/{variantId}")
+    public ResponseEntity<CartDTO> removeItem(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String variantId) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            cartWriteBuffer.drain(user.id());
+            return ResponseEntity.ok(cartService.removeItem(user.id(), variantId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearCart(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            cartWriteBuffer.drain(user.id());
+            cartService.clearCart(user.id());
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+}
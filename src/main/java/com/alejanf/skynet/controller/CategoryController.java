@@ -0,0 +1,29 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.CategoryDTO;
+import com.alejanf.skynet.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    @GetMapping
+    public ResponseEntity<List<CategoryDTO>> getActiveCategories() {
+        return ResponseEntity.ok(categoryService.getActiveCategories());
+    }
+
+    @GetMapping("/{slug}")
+    public ResponseEntity<CategoryDTO> getCategoryBySlug(@PathVariable String slug) {
+        CategoryDTO category = categoryService.getCategoryBySlug(slug);
+        return category != null ? ResponseEntity.ok(category) : ResponseEntity.notFound().build();
+    }
+}
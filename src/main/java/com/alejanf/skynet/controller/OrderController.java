@@ -0,0 +1,104 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.CreateOrderDTO;
+import com.alejanf.skynet.dto.CursorPageDTO;
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.dto.RevenueDTO;
+import com.alejanf.skynet.exception.InsufficientStockException;
+import com.alejanf.skynet.exception.InvalidOrderException;
+import com.alejanf.skynet.exception.OrderStateException;
+import com.alejanf.skynet.exception.ProductNotFoundException;
+import com.alejanf.skynet.exception.VariantNotFoundException;
+import com.alejanf.skynet.jwt.AuthenticatedUser;
+import com.alejanf.skynet.model.OrderStatus;
+import com.alejanf.skynet.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class OrderController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final OrderService orderService;
+
+    @PostMapping
+    public ResponseEntity<OrderDTO> placeOrder(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody CreateOrderDTO request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrder(user.id(), request));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InvalidOrderException | ProductNotFoundException | VariantNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Historial del usuario autenticado, paginado por cursor
+    @GetMapping("/me")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getMyOrders(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(orderService.getUserOrders(user.id(), pageSize, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Confirmación de pago: consolida las retenciones de stock si siguen vigentes. No la hace el comprador
+    // (nada aquí comprueba el cobro), sino la administración o la integración de pagos con rol ADMIN
+    @PostMapping("/{orderId}/pay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderDTO> payOrder(@PathVariable String orderId) {
+        try {
+            return ResponseEntity.ok(orderService.payOrder(orderId));
+        } catch (OrderStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/{orderId}/cancel")
+    public ResponseEntity<OrderDTO> cancelOrder(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String orderId) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(orderService.cancelOrder(orderId, user.id()));
+        } catch (OrderStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/revenue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RevenueDTO> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "PAID,SHIPPED") List<OrderStatus> statuses) {
+        return ResponseEntity.ok(orderService.getRevenue(statuses, from, to));
+    }
+}
@@ -0,0 +1,57 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.service.ProductExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/products/export")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ProductExportController {
+
+    private final ProductExportService productExportService;
+
+    // Volcado completo para feeds e indexación: el cuerpo se escribe mientras se recorre el cursor
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "jsonl") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ProductExportService.Format exportFormat;
+        try {
+            exportFormat = ProductExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String extension = exportFormat == ProductExportService.Format.CSV ? "csv" : "jsonl";
+        MediaType contentType = exportFormat == ProductExportService.Format.CSV
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.APPLICATION_NDJSON;
+        String fileName = "products." + extension + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                productExportService.export(gzipOut, exportFormat);
+                gzipOut.finish();
+            } else {
+                productExportService.export(out, exportFormat);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
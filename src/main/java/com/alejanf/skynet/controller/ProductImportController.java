@@ -0,0 +1,47 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.ImportReportDTO;
+import com.alejanf.skynet.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/products/import")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    // El cuerpo se lee directamente del stream de la petición: nunca se carga el fichero entero en memoria
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReportDTO> importProducts(
+            @RequestParam(defaultValue = "jsonl") String format,
+            HttpServletRequest request) {
+        ProductImportService.Format importFormat;
+        try {
+            importFormat = ProductImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            InputStream body = request.getInputStream();
+            if ("gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+                body = new GZIPInputStream(body, 64 * 1024);
+            }
+            return ResponseEntity.ok(productImportService.importProducts(body, importFormat));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.jwt.AuthenticatedUser;
+import com.alejanf.skynet.model.Role;
+import com.alejanf.skynet.service.ProductStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+// Exportación en streaming del catálogo: cada producto se escribe en cuanto llega de Mongo,
+// con backpressure (no se pide el siguiente documento hasta haber escrito el anterior).
+// El catálogo activo es público; los productos inactivos solo los ven los administradores.
+@RestController
+@RequestMapping("/api/products/stream")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ProductStreamController {
+
+    private final ProductStreamService productStreamService;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<ProductDTO>> streamNdjson(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "true") boolean active,
+            @RequestParam(required = false) String categoryId) {
+        return stream(user, active, categoryId);
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ProductDTO>> streamEvents(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "true") boolean active,
+            @RequestParam(required = false) String categoryId) {
+        return stream(user, active, categoryId);
+    }
+
+    private ResponseEntity<Flux<ProductDTO>> stream(AuthenticatedUser user, boolean active, String categoryId) {
+        if (!active && (user == null || user.role() != Role.ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(productStreamService.streamProducts(active, categoryId));
+    }
+}
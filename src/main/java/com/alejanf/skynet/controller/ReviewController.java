@@ -0,0 +1,47 @@
+package com.alejanf.skynet.controller;
+
+import com.alejanf.skynet.dto.CreateReviewDTO;
+import com.alejanf.skynet.dto.ReviewDTO;
+import com.alejanf.skynet.exception.DuplicateReviewException;
+import com.alejanf.skynet.exception.ProductNotFoundException;
+import com.alejanf.skynet.jwt.AuthenticatedUser;
+import com.alejanf.skynet.service.ReviewService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reviews")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+public class ReviewController {
+
+    private final ReviewService reviewService;
+
+    @PostMapping
+    public ResponseEntity<ReviewDTO> submitReview(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody CreateReviewDTO request) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reviewService.submitReview(user.id(), request));
+        } catch (DuplicateReviewException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ProductNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/product/{productId}")
+    public ResponseEntity<Page<ReviewDTO>> getProductReviews(@PathVariable String productId, @NonNull Pageable pageable) {
+        return ResponseEntity.ok(reviewService.getProductReviews(productId, pageable));
+    }
+}
@@ -0,0 +1,17 @@
+package com.alejanf.skynet.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class AddCartItemDTO {
+
+    @NotBlank
+    private String variantId;
+
+    @NotNull
+    @Positive
+    private Integer quantity;
+}
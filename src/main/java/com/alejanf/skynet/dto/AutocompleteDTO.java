@@ -0,0 +1,31 @@
+package com.alejanf.skynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AutocompleteDTO {
+
+    private List<ProductSuggestion> products;
+    private List<CategorySuggestion> categories;
+    private List<String> tags;
+
+    @Data
+    @AllArgsConstructor
+    public static class ProductSuggestion {
+        private String name;
+        private String slug;
+        private String imageUrl;
+        private Double rating;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class CategorySuggestion {
+        private String name;
+        private String slug;
+    }
+}
@@ -0,0 +1,35 @@
+package com.alejanf.skynet.dto;
+
+import com.alejanf.skynet.model.Cart;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CartDTO {
+
+    private String userId;
+    private List<CartItemDTO> items = new ArrayList<>();
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+    private Integer totalQuantity = 0;
+    private LocalDateTime updatedAt;
+
+    public static CartDTO fromEntity(Cart cart) {
+        CartDTO dto = new CartDTO();
+        dto.setUserId(cart.getUserId());
+        dto.setItems(cart.getItems().stream().map(CartItemDTO::fromEntity).toList());
+        dto.setTotalPrice(cart.getTotalPrice());
+        dto.setTotalQuantity(cart.getTotalQuantity());
+        dto.setUpdatedAt(cart.getUpdatedAt());
+        return dto;
+    }
+
+    public static CartDTO empty(String userId) {
+        CartDTO dto = new CartDTO();
+        dto.setUserId(userId);
+        return dto;
+    }
+}
@@ -0,0 +1,28 @@
+package com.alejanf.skynet.dto;
+
+import com.alejanf.skynet.model.CartItem;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CartItemDTO {
+
+    private String productId;
+    private String variantId;
+    private String productName;
+    private BigDecimal price;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+
+    public static CartItemDTO fromEntity(CartItem item) {
+        CartItemDTO dto = new CartItemDTO();
+        dto.setProductId(item.getProductId());
+        dto.setVariantId(item.getVariantId());
+        dto.setProductName(item.getProductName());
+        dto.setPrice(item.getPrice());
+        dto.setQuantity(item.getQuantity());
+        dto.setTotalPrice(item.getTotalPrice());
+        return dto;
+    }
+}
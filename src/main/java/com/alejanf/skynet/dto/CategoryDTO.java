@@ -1,5 +1,6 @@
 package com.alejanf.skynet.dto;
 
+import com.alejanf.skynet.model.Category;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -15,4 +16,17 @@ public class CategoryDTO {
     private boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    public static CategoryDTO fromEntity(Category category) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setSlug(category.getSlug());
+        dto.setDescription(category.getDescription());
+        dto.setImageUrl(category.getImageUrl());
+        dto.setActive(category.isActive());
+        dto.setCreatedAt(category.getCreatedAt());
+        dto.setUpdatedAt(category.getUpdatedAt());
+        return dto;
+    }
 }
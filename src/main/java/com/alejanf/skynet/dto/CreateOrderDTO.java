@@ -1,6 +1,7 @@
 package com.alejanf.skynet.dto;
 
 import com.alejanf.skynet.model.Address;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -11,7 +12,7 @@ import java.util.List;
 public class CreateOrderDTO {
 
     @NotEmpty(message = "Order must contain at least one product")
-    private List<CreateOrderProductDTO> orderProducts;
+    private List<@Valid CreateOrderProductDTO> orderProducts;
 
     @NotNull(message = "Delivery address cannot be null")
     private Address deliveryAddress;
@@ -13,6 +13,9 @@ public class CreateOrderProductDTO {
     @NotNull
     private String productId;
 
+    @NotNull
+    private String variantId; // El stock se reserva a nivel de variante
+
     @NotNull
     @Positive
     private Integer quantity;
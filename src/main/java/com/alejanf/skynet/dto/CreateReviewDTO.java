@@ -0,0 +1,23 @@
+package com.alejanf.skynet.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CreateReviewDTO {
+
+    @NotBlank
+    private String productId;
+
+    @NotNull
+    @Min(1)
+    @Max(5)
+    private Integer rating;
+
+    @Size(max = 1000)
+    private String comment;
+}
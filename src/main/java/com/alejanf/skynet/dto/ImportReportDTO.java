@@ -0,0 +1,37 @@
+package com.alejanf.skynet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+
+    // Límite de errores detallados para que el informe no crezca con el tamaño del fichero
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long rowsProcessed;
+    private long productsUpserted;
+    private long variantsUpserted;
+    private long variantsRemoved; // Variantes que ya no venían en la fila de su producto
+    private long rowsFailed;
+    private long elapsedMs;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(long line, String slug, String message) {
+        rowsFailed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, slug, message));
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String slug;
+        private String message;
+    }
+}
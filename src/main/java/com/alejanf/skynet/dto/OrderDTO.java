@@ -1,6 +1,7 @@
 package com.alejanf.skynet.dto;
 
 import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -24,4 +25,21 @@ public class OrderDTO {
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    public static OrderDTO fromEntity(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setOrderProducts(order.getOrderProducts().stream().map(OrderProductDTO::fromEntity).toList());
+        dto.setStatus(order.getStatus().name());
+        dto.setPaymentMethod(order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null);
+        dto.setUserId(order.getUserId());
+        dto.setDeliveryAddress(order.getDeliveryAddress());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setTotalQuantity(order.getTotalQuantity());
+        dto.setActive(order.isActive());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setUpdatedAt(order.getUpdatedAt());
+        return dto;
+    }
 }
@@ -1,5 +1,6 @@
 package com.alejanf.skynet.dto;
 
+import com.alejanf.skynet.model.OrderProduct;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -8,9 +9,22 @@ import java.math.BigDecimal;
 public class OrderProductDTO {
 
     private String productId;
+    private String variantId;
     private String productName;
     private BigDecimal price;
     private Integer quantity;
     private BigDecimal discount;
     private BigDecimal totalPrice;
+
+    public static OrderProductDTO fromEntity(OrderProduct orderProduct) {
+        OrderProductDTO dto = new OrderProductDTO();
+        dto.setProductId(orderProduct.getProductId());
+        dto.setVariantId(orderProduct.getVariantId());
+        dto.setProductName(orderProduct.getProductName());
+        dto.setPrice(orderProduct.getPrice());
+        dto.setQuantity(orderProduct.getQuantity());
+        dto.setDiscount(orderProduct.getDiscount());
+        dto.setTotalPrice(orderProduct.getTotalPrice());
+        return dto;
+    }
 }
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Set;
 
 @Data
-public class ProductDTO {
+public class ProductDTO implements ProductVersionView {
 
     private String id;
     private String name;
@@ -24,6 +24,7 @@ public class ProductDTO {
     private Integer ratingCount;
     private String slug;
     private boolean active;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -42,6 +43,7 @@ public class ProductDTO {
         dto.setRatingCount(product.getRatingCount());
         dto.setSlug(product.getSlug());
         dto.setActive(product.isActive());
+        dto.setVersion(product.getVersion());
         dto.setCreatedAt(product.getCreatedAt());
         dto.setUpdatedAt(product.getUpdatedAt());
         return dto;
@@ -0,0 +1,36 @@
+package com.alejanf.skynet.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Fila plana del export CSV: una fila por variante (o una sola fila si el producto no tiene variantes)
+@Data
+@JsonPropertyOrder({"productId", "slug", "name", "description", "price", "stockTotal", "categorySlug", "categoryName",
+        "imageUrl", "tags", "rating", "ratingCount", "active",
+        "variantId", "sku", "size", "color", "variantPrice", "variantStock", "variantImageUrl"})
+public class ProductExportCsvRow {
+
+    private String productId;
+    private String slug;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stockTotal;
+    private String categorySlug;
+    private String categoryName;
+    private String imageUrl;
+    private String tags; // separadas por '|'
+    private Double rating;
+    private Integer ratingCount;
+    private boolean active;
+
+    private String variantId;
+    private String sku;
+    private String size;
+    private String color;
+    private BigDecimal variantPrice;
+    private Integer variantStock;
+    private String variantImageUrl;
+}
@@ -0,0 +1,54 @@
+package com.alejanf.skynet.dto;
+
+import com.alejanf.skynet.model.ProductVariant;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Una línea del export JSON-lines: producto con su categoría y variantes embebidas
+@Data
+public class ProductExportDTO {
+
+    private String id;
+    private String slug;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stockTotal;
+    private String categoryId;
+    private String categorySlug;
+    private String categoryName;
+    private String imageUrl;
+    private Set<String> tags;
+    private Double rating;
+    private Integer ratingCount;
+    private boolean active;
+    private LocalDateTime updatedAt;
+    private List<Variant> variants;
+
+    @Data
+    public static class Variant {
+        private String id;
+        private String sku;
+        private String size;
+        private String color;
+        private BigDecimal price;
+        private Integer stock;
+        private String imageUrl;
+
+        public static Variant fromEntity(ProductVariant variant) {
+            Variant dto = new Variant();
+            dto.setId(variant.getId());
+            dto.setSku(variant.getSku());
+            dto.setSize(variant.getSize());
+            dto.setColor(variant.getColor());
+            dto.setPrice(variant.getPrice());
+            dto.setStock(variant.getStock());
+            dto.setImageUrl(variant.getImageUrl());
+            return dto;
+        }
+    }
+}
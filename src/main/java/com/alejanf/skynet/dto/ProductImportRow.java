@@ -0,0 +1,34 @@
+package com.alejanf.skynet.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Una línea de la importación JSON-lines (en CSV se agrupan las filas consecutivas con el mismo slug)
+@Data
+public class ProductImportRow {
+
+    private String slug;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String categorySlug;
+    private String imageUrl;
+    private Set<String> tags = new HashSet<>();
+    private Boolean active;
+    private List<Variant> variants = new ArrayList<>();
+
+    @Data
+    public static class Variant {
+        private String sku;
+        private String size;
+        private String color;
+        private BigDecimal price;
+        private Integer stock;
+        private String imageUrl;
+    }
+}
@@ -0,0 +1,20 @@
+package com.alejanf.skynet.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Filtros de la búsqueda de productos; los campos a null no filtran
+@Data
+public class ProductSearchCriteria {
+
+    private String categoryId;
+    private List<String> tags = new ArrayList<>(); // El producto debe tener todas
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Double minRating;
+    private Boolean inStock;
+    private Boolean active = true;
+}
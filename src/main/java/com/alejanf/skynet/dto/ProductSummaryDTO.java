@@ -0,0 +1,21 @@
+package com.alejanf.skynet.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Vista ligera para los listados: se usa como proyección, Mongo solo devuelve estos campos
+@Data
+public class ProductSummaryDTO implements ProductVersionView {
+
+    private String id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private Double rating;
+    private String slug;
+    private Integer stockTotal;
+    private Long version;              // Para el ETag del listado
+    private LocalDateTime updatedAt;
+}
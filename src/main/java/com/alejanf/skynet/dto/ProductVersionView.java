@@ -0,0 +1,16 @@
+package com.alejanf.skynet.dto;
+
+import java.time.LocalDateTime;
+
+// Proyección mínima para validar cachés HTTP sin cargar el documento completo
+public interface ProductVersionView {
+
+    String getId();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    // El stock se actualiza sin tocar version (StockService): forma parte de la revisión aparte
+    Integer getStockTotal();
+}
@@ -0,0 +1,13 @@
+package com.alejanf.skynet.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class RevenueDTO {
+
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private long units;
+    private long orders;
+}
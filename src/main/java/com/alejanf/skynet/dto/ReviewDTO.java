@@ -0,0 +1,28 @@
+package com.alejanf.skynet.dto;
+
+import com.alejanf.skynet.model.Review;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReviewDTO {
+
+    private String id;
+    private String productId;
+    private String userId;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+
+    public static ReviewDTO fromEntity(Review review) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setId(review.getId());
+        dto.setProductId(review.getProductId());
+        dto.setUserId(review.getUserId());
+        dto.setRating(review.getRating());
+        dto.setComment(review.getComment());
+        dto.setCreatedAt(review.getCreatedAt());
+        return dto;
+    }
+}
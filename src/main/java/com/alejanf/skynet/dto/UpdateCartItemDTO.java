@@ -0,0 +1,13 @@
+package com.alejanf.skynet.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class UpdateCartItemDTO {
+
+    @NotNull
+    @PositiveOrZero
+    private Integer quantity; // 0 elimina la línea
+}
@@ -0,0 +1,8 @@
+package com.alejanf.skynet.exception;
+
+public class DuplicateReviewException extends RuntimeException {
+
+    public DuplicateReviewException(String productId) {
+        super("Product " + productId + " already reviewed by this user");
+    }
+}
@@ -0,0 +1,9 @@
+package com.alejanf.skynet.exception;
+
+// El pool de hashing está saturado: se rechaza de inmediato en lugar de encolar sin límite
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException() {
+        super("Authentication service is busy, please retry");
+    }
+}
@@ -0,0 +1,15 @@
+package com.alejanf.skynet.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final String variantId;
+
+    public InsufficientStockException(String variantId) {
+        super("Insufficient stock for variant " + variantId);
+        this.variantId = variantId;
+    }
+
+    public String getVariantId() {
+        return variantId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.alejanf.skynet.exception;
+
+// La petición de pedido no es válida (variante de otro producto, producto inactivo, método de pago desconocido)
+public class InvalidOrderException extends RuntimeException {
+
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
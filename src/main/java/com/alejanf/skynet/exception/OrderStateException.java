@@ -0,0 +1,9 @@
+package com.alejanf.skynet.exception;
+
+// El pedido no está en el estado que requiere la operación (p. ej. pagar uno ya cancelado o caducado)
+public class OrderStateException extends RuntimeException {
+
+    public OrderStateException(String orderId, String message) {
+        super("Order " + orderId + ": " + message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.alejanf.skynet.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+
+    public ProductNotFoundException(String productId) {
+        super("Product " + productId + " not found");
+    }
+}
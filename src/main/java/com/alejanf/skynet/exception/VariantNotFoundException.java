@@ -0,0 +1,8 @@
+package com.alejanf.skynet.exception;
+
+public class VariantNotFoundException extends RuntimeException {
+
+    public VariantNotFoundException(String variantId) {
+        super("Variant " + variantId + " not found");
+    }
+}
@@ -0,0 +1,14 @@
+package com.alejanf.skynet.jwt;
+
+import com.alejanf.skynet.model.Role;
+
+import java.security.Principal;
+
+// Datos mínimos del usuario que necesita la capa de seguridad en cada petición
+public record AuthenticatedUser(String id, String email, Role role, boolean active) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
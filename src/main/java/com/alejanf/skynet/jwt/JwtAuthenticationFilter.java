@@ -1,7 +1,6 @@
 package com.alejanf.skynet.jwt;
 
-import com.alejanf.skynet.model.User;
-import com.alejanf.skynet.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -18,47 +17,45 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
-    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, 
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        
+
         String token = getTokenFromCookie(request);
+        // Un único parseo (o acierto de caché) por petición
+        Claims claims = token != null ? jwtTokenProvider.getVerifiedClaims(token) : null;
+
+        if (claims != null) {
+            String email = claims.getSubject();
+            String userId = claims.get("userId", String.class);
+
+            if (email != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Cargar usuario desde la caché de principales (solo va a la base de datos en un fallo)
+                AuthenticatedUser user = userPrincipalCache.get(userId);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String email = jwtTokenProvider.getEmailFromToken(token);
+                // Verificar que el usuario esté activo y que el token siga correspondiendo a su email
+                if (user != null && user.active() && email.equals(user.email())) {
+                    // Obtener el rol del usuario y crear la autoridad
+                    String role = "ROLE_" + user.role().name();
+                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Cargar usuario desde la base de datos
-                Optional<User> userOptional = userRepository.findByEmail(email);
-                
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
-                    
-                    // Verificar que el usuario esté activo
-                    if (user.isActive()) {
-                        // Obtener el rol del usuario y crear la autoridad
-                        String role = "ROLE_" + user.getRole().name();
-                        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role);
-                        
-                        UsernamePasswordAuthenticationToken authentication = 
-                            new UsernamePasswordAuthenticationToken(
-                                email, 
-                                null, 
-                                Collections.singletonList(authority)
-                            );
-                        
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                    }
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                            user,
+                            null,
+                            Collections.singletonList(authority)
+                        );
+
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         }
@@ -78,4 +75,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 }
-
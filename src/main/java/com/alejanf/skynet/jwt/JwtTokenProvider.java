@@ -1,14 +1,23 @@
 package com.alejanf.skynet.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -20,8 +29,30 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration:86400000}") // 24 horas por defecto
     private long jwtExpirationInMs;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    // La clave y el parser se construyen una sola vez al arrancar
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Claims ya verificados, indexados por el digest del token y expirados con el propio token
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String generateToken(String email, String userId) {
@@ -54,26 +85,60 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
+    // Devuelve los claims de un token válido y no expirado, o null si no lo es.
+    // La firma solo se verifica la primera vez que se ve el token; después se sirve desde caché.
+    public Claims getVerifiedClaims(String token) {
+        try {
+            Claims claims = getAllClaimsFromToken(token);
+            return isExpired(claims) ? null : claims;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifiedClaims.get(digest(token), key -> jwtParser.parseSignedClaims(token).getPayload());
     }
 
     public Boolean validateToken(String token) {
+        return getVerifiedClaims(token) != null;
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private static String digest(String token) {
         try {
-            getAllClaimsFromToken(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    // Cada entrada vive como mucho hasta el 'exp' del token que la originó
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMs = Math.max(0, expiration.getTime() - System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(remainingMs);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
-
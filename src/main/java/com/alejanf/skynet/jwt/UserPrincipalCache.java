@@ -0,0 +1,48 @@
+package com.alejanf.skynet.jwt;
+
+import com.alejanf.skynet.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, AuthenticatedUser> principals;
+
+    @PostConstruct
+    void init() {
+        // El TTL acota cuánto tarda en aplicarse un cambio hecho desde otra instancia
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // Devuelve null si el usuario no existe; los usuarios inexistentes no se cachean
+    public AuthenticatedUser get(String userId) {
+        return principals.get(userId, id -> userRepository.findById(id)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(), user.isActive()))
+                .orElse(null));
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            principals.invalidate(userId);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.alejanf.skynet.jwt;
+
+import com.alejanf.skynet.model.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Invalida el principal cacheado cada vez que se guarda o borra un usuario en esta instancia
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCacheListener extends AbstractMongoEventListener<User> {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        userPrincipalCache.invalidate(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Document filter = event.getSource();
+        Object id = filter.get("_id");
+        if (id != null) {
+            userPrincipalCache.invalidate(id.toString());
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.alejanf.skynet.model;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,12 +21,17 @@ public class Cart {
     private String id;
 
     @NotNull
-    private String userId; // Identifica al usuario dueño del carrito
+    @Indexed(unique = true)
+    private String userId; // Identifica al usuario dueño del carrito (un carrito por usuario)
 
     private List<CartItem> items = new ArrayList<>();
 
+    // Totales mantenidos con $inc en cada cambio de línea (CartService), nunca recalculados
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalPrice = BigDecimal.ZERO;
 
+    private Integer totalQuantity = 0;
+
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 }
@@ -3,6 +3,8 @@ package com.alejanf.skynet.model;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 
@@ -19,6 +21,7 @@ public class CartItem {
     private String productName;
 
     @NotNull
+    @Field(targetType = FieldType.DECIMAL128) // Precio fijado al añadir la línea; los $inc del total lo usan
     private BigDecimal price;
 
     @NotNull
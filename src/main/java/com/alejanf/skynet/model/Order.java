@@ -2,17 +2,31 @@ package com.alejanf.skynet.model;
 
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Document(collection = "orders")
+@CompoundIndexes({
+        // Barrido de pedidos pendientes cuyas retenciones de stock han caducado
+        @CompoundIndex(name = "status_reservationExpiresAt", def = "{'status': 1, 'reservationExpiresAt': 1}"),
+        // Historial de pedidos del usuario, del más reciente al más antiguo (_id desempata en la paginación)
+        @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Order {
 
     @Id
@@ -25,6 +39,8 @@ public class Order {
 
     private OrderStatus status = OrderStatus.PENDING;
 
+    private LocalDateTime reservationExpiresAt; // Si no se paga antes, el pedido se cancela y el stock retenido vuelve
+
     private PaymentMethod paymentMethod;
 
     @NotNull(message = "Delivery address cannot be null")
@@ -32,22 +48,66 @@ public class Order {
 
     private String userId; // Referencia al usuario
 
+    // Outbox: eventos pendientes en orden de creación; OrderOutboxDispatcher los entrega y los retira
+    private List<OutboxEvent> outbox = new ArrayList<>();
+
+    @Indexed(sparse = true)
+    private LocalDateTime outboxDueAt; // Desde cuándo hay eventos pendientes; sin valor cuando la outbox está vacía
+
+    private LocalDateTime outboxLockedUntil; // Lease del dispatcher o espera de backoff tras un fallo
+    private String outboxLockedBy;
+    private Integer outboxAttempts; // Intentos fallidos del primer evento pendiente
+    private Set<String> outboxDeliveredTo; // Handlers que ya procesaron el primer evento pendiente
+    private List<OutboxEvent> outboxDeadLetters; // Eventos apartados tras agotar los reintentos
+
     private boolean active = true; // Soft delete
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 
-    // Calcula el total de la orden dinámicamente
+    // Totales guardados en el documento (como Cart.totalPrice) para no recalcularlos en cada lectura
+    // y poder agregarlos directamente en Mongo
+    @Setter(AccessLevel.NONE)
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalPrice;
+
+    @Setter(AccessLevel.NONE)
+    private Integer totalQuantity;
+
+    public void setOrderProducts(List<OrderProduct> orderProducts) {
+        this.orderProducts = orderProducts;
+        recalculateTotals();
+    }
+
+    public void addOrderProduct(OrderProduct orderProduct) {
+        orderProducts.add(orderProduct);
+        recalculateTotals();
+    }
+
+    // Llamar tras modificar una línea ya añadida
+    public void recalculateTotals() {
+        BigDecimal price = BigDecimal.ZERO;
+        int quantity = 0;
+        for (OrderProduct orderProduct : orderProducts != null ? orderProducts : List.<OrderProduct>of()) {
+            price = price.add(orderProduct.getTotalPrice());
+            quantity += orderProduct.getQuantity();
+        }
+        totalPrice = price;
+        totalQuantity = quantity;
+    }
+
+    // Documentos antiguos no traen los totales guardados: se calculan una vez al pedirlos
     public BigDecimal getTotalPrice() {
-        return orderProducts.stream()
-                .map(OrderProduct::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (totalPrice == null) {
+            recalculateTotals();
+        }
+        return totalPrice;
     }
 
-    // Calcula la cantidad total de productos en la orden
     public int getTotalQuantity() {
-        return orderProducts.stream()
-                .mapToInt(OrderProduct::getQuantity)
-                .sum();
+        if (totalQuantity == null) {
+            recalculateTotals();
+        }
+        return totalQuantity;
     }
 }
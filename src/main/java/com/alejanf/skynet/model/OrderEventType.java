@@ -0,0 +1,7 @@
+package com.alejanf.skynet.model;
+
+public enum OrderEventType {
+    PLACED,     // Pedido creado con el stock retenido
+    PAID,       // Pago confirmado
+    CANCELLED   // Cancelado por el usuario o por caducidad de la retención
+}
@@ -3,7 +3,11 @@ package com.alejanf.skynet.model;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 
@@ -31,10 +35,32 @@ public class OrderProduct {
     @DecimalMin("0.0")
     private BigDecimal discount = BigDecimal.ZERO;
 
+    // Total de la línea: se calcula al cambiar precio, cantidad o descuento y se persiste
+    @Setter(AccessLevel.NONE)
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalPrice;
 
-    // Calcula el total dinámicamente considerando la cantidad y el descuento
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        recalculateTotalPrice();
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+        recalculateTotalPrice();
+    }
+
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+        recalculateTotalPrice();
+    }
+
+    // Documentos antiguos no traen el total guardado: se calcula una vez al pedirlo
     public BigDecimal getTotalPrice() {
-        return price.multiply(BigDecimal.valueOf(quantity)).subtract(discount);
+        if (totalPrice == null) {
+            recalculateTotalPrice();
+        }
+        return totalPrice;
     }
 
     //Metodo opcional para agregar impuestos
@@ -42,4 +68,13 @@ public class OrderProduct {
         BigDecimal total = getTotalPrice();
         return total.add(total.multiply(taxRate));
     }
+
+    private void recalculateTotalPrice() {
+        if (price == null || quantity == null) {
+            totalPrice = null;
+            return;
+        }
+        BigDecimal lineDiscount = discount != null ? discount : BigDecimal.ZERO;
+        totalPrice = price.multiply(BigDecimal.valueOf(quantity)).subtract(lineDiscount);
+    }
 }
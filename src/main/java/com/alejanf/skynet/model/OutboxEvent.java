@@ -0,0 +1,25 @@
+package com.alejanf.skynet.model;
+
+import lombok.Data;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+
+// Evento pendiente de entregar, guardado dentro del propio pedido: se escribe en el mismo update
+// que el cambio de estado, así que no hay pedido sin su evento ni evento sin su pedido
+@Data
+public class OutboxEvent {
+
+    private String eventId;
+    private OrderEventType type;
+    private LocalDateTime createdAt;
+    private String lastError; // Solo en los eventos apartados tras agotar los reintentos
+
+    public static OutboxEvent of(OrderEventType type, LocalDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(new ObjectId().toHexString());
+        event.setType(type);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
@@ -4,11 +4,18 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -19,24 +26,47 @@ import java.util.Set;
 
 @Data
 @Document(collection = "products")
+@CompoundIndexes({
+        // Claves de ordenación para la paginación por cursor (campo + _id como desempate)
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "rating_id", def = "{'rating': 1, '_id': 1}"),
+        // Búsqueda (ProductSearchService): igualdad primero, después la ordenación (con _id como desempate
+        // para que la paginación por offset sea estable) y al final los rangos
+        @CompoundIndex(name = "category_active_price", def = "{'categoryId': 1, 'active': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_active_rating", def = "{'categoryId': 1, 'active': 1, 'rating': -1, '_id': -1}"),
+        @CompoundIndex(name = "category_active_createdAt", def = "{'categoryId': 1, 'active': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "tags_active_price", def = "{'tags': 1, 'active': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "active_price", def = "{'active': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "active_rating", def = "{'active': 1, 'rating': -1, '_id': -1}"),
+        @CompoundIndex(name = "active_createdAt", def = "{'active': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Product {
 
     @Id
     private String id;
 
     @NotBlank
+    @TextIndexed(weight = 10)
     private String name;
 
+    // Nombre normalizado para las búsquedas por prefijo; se mantiene desde setName
+    @Setter(AccessLevel.NONE)
+    @Indexed
+    private String nameKey;
+
     @NotBlank
+    @TextIndexed(weight = 1)
     private String description;
 
     @NotNull
     @DecimalMin("0.0")
+    @Field(targetType = FieldType.DECIMAL128) // Numérico en Mongo para poder ordenar y filtrar por rango
     private BigDecimal price;
 
     @NotNull
     @PositiveOrZero
-    private Integer stockTotal;     //Hay que actualizar el padre cada vesz que actualicemos al hijo
+    private Integer stockTotal;     // Suma del stock de las variantes; StockService la ajusta con $inc junto a cada variante
 
     @NotBlank
     private String categoryId; // Referencia al id de la categoría
@@ -46,11 +76,12 @@ public class Product {
 
     private String imageUrl;
 
-    @Indexed
-    private Set<String> tags = new HashSet<>(); // Evita duplicados y facilita búsqueda
+    @TextIndexed(weight = 5)
+    private Set<String> tags = new HashSet<>(); // Evita duplicados; indexado por tags_active_price
 
-    private Double rating = 0.0;
+    private Double rating = 0.0;    // ratingSum / ratingCount, recalculado en Mongo por ProductRatingService
     private Integer ratingCount = 0; // Número de reseñas para cálculo de promedio
+    private Long ratingSum = 0L;     // Suma de las puntuaciones; se incrementa junto a ratingCount
 
     @NotBlank
     @Indexed(unique = true)
@@ -63,4 +94,9 @@ public class Product {
 
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = SearchText.normalize(name);
+    }
 }
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -18,6 +19,7 @@ public class ProductVariant {
     private String id;
 
     @NotBlank
+    @Indexed
     private String productId; // referencia al producto padre
 
     @NotBlank
@@ -35,5 +37,6 @@ public class ProductVariant {
 
     private String imageUrl;
 
-    private String sku;
+    @Indexed(unique = true, sparse = true)
+    private String sku; // Clave de las importaciones masivas
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.alejanf.skynet.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Retención de stock de una línea de pedido entre el checkout y el pago.
+// El TTL va sobre purgeAt, que solo se rellena al llegar a un estado final: una retención HELD nunca
+// desaparece sola, porque antes hay que devolver su stock.
+@Data
+@Document(collection = "reservations")
+@CompoundIndexes({
+        @CompoundIndex(name = "order_status", def = "{'orderId': 1, 'status': 1}"),
+        // Barrido de retenciones caducadas
+        @CompoundIndex(name = "status_expiresAt", def = "{'status': 1, 'expiresAt': 1}")
+})
+public class Reservation {
+
+    @Id
+    private String id;
+
+    @NotBlank
+    private String orderId;
+
+    private String userId;
+
+    @NotBlank
+    private String productId;
+
+    @NotBlank
+    private String variantId;
+
+    @NotNull
+    @Positive
+    private Integer quantity;
+
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    private LocalDateTime expiresAt;
+
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime purgeAt; // Borrado por TTL una vez cerrada (se conserva un tiempo para auditoría)
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,7 @@
+package com.alejanf.skynet.model;
+
+public enum ReservationStatus {
+    HELD,       // Stock descontado y pendiente de pago
+    COMMITTED,  // El pedido se pagó: el descuento de stock es definitivo
+    RELEASED    // Cancelada o caducada: el stock se devolvió
+}
@@ -0,0 +1,44 @@
+package com.alejanf.skynet.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "reviews")
+@CompoundIndexes({
+        // Una reseña por usuario y producto
+        @CompoundIndex(name = "product_user", def = "{'productId': 1, 'userId': 1}", unique = true),
+        // Listado de reseñas de un producto, las más recientes primero
+        @CompoundIndex(name = "product_createdAt", def = "{'productId': 1, 'createdAt': -1}")
+})
+public class Review {
+
+    @Id
+    private String id;
+
+    @NotBlank
+    private String productId;
+
+    @NotBlank
+    private String userId;
+
+    @NotNull
+    @Min(1)
+    @Max(5)
+    private Integer rating;
+
+    @Size(max = 1000)
+    private String comment;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -37,9 +37,6 @@ public class User {
 
     private List<Address> addresses = new ArrayList<>();
 
-    // Referencias a órdenes
-    private List<String> orderIds = new ArrayList<>();
-
     private boolean active = true; // Soft delete
 
     private LocalDateTime createdAt = LocalDateTime.now();
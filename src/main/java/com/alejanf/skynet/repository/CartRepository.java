@@ -0,0 +1,11 @@
+package com.alejanf.skynet.repository;
+
+import com.alejanf.skynet.model.Cart;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface CartRepository extends MongoRepository<Cart, String> {
+
+    Optional<Cart> findByUserId(String userId);
+}
@@ -3,5 +3,12 @@ package com.alejanf.skynet.repository;
 import com.alejanf.skynet.model.Category;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface CategoryRepository extends MongoRepository<Category, String> {
+
+    Optional<Category> findBySlug(String slug);
+
+    List<Category> findByActiveTrue();
 }
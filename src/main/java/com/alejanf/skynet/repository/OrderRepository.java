@@ -1,7 +1,20 @@
 package com.alejanf.skynet.repository;
 
 import com.alejanf.skynet.model.Order;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface OrderRepository extends MongoRepository<Order, String> {
+
+    // Historial del usuario (índice userId_createdAt): primera página y páginas siguientes por keyset
+    List<Order> findByUserId(String userId, Sort sort, Limit limit);
+
+    @Query("{ 'userId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }")
+    List<Order> findByUserIdBefore(String userId, LocalDateTime createdAt, ObjectId id, Sort sort, Limit limit);
 }
@@ -1,6 +1,10 @@
 package com.alejanf.skynet.repository;
 
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.dto.ProductVersionView;
 import com.alejanf.skynet.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.Optional;
@@ -8,4 +12,10 @@ import java.util.Optional;
 public interface ProductRepository extends MongoRepository<Product, String> {
 
    Optional<Product> findBySlug(String slug);
+
+   // Proyección por clase: la consulta solo incluye los campos de ProductSummaryDTO
+   Page<ProductSummaryDTO> findAllBy(Pageable pageable);
+
+   // Proyecciones de versión para peticiones condicionales (ETag / Last-Modified)
+   Optional<ProductVersionView> findVersionBySlug(String slug);
 }
@@ -0,0 +1,7 @@
+package com.alejanf.skynet.repository;
+
+import com.alejanf.skynet.model.ProductVariant;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ProductVariantRepository extends MongoRepository<ProductVariant, String> {
+}
@@ -0,0 +1,13 @@
+package com.alejanf.skynet.repository;
+
+import com.alejanf.skynet.model.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+// Lectura reactiva del catálogo: el cursor de Mongo se consume según la demanda del cliente
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+
+    Flux<Product> findByActive(boolean active);
+
+    Flux<Product> findByActiveAndCategoryId(boolean active, String categoryId);
+}
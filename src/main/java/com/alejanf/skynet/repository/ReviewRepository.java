@@ -0,0 +1,11 @@
+package com.alejanf.skynet.repository;
+
+import com.alejanf.skynet.model.Review;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ReviewRepository extends MongoRepository<Review, String> {
+
+    Page<Review> findByProductIdOrderByCreatedAtDesc(String productId, Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.alejanf.skynet.repository;
+
+import java.time.LocalDateTime;
+
+// Actualizaciones parciales ($set / $inc) de User que no reescriben el documento completo
+public interface UserRepositoryCustom {
+
+    // Resetea los intentos fallidos y fija lastLogin; si newPasswordHash no es null también actualiza la contraseña
+    void recordSuccessfulLogin(String userId, LocalDateTime lastLogin, String newPasswordHash);
+
+    void incrementFailedLoginAttempts(String userId);
+}
@@ -0,0 +1,34 @@
+package com.alejanf.skynet.repository;
+
+import com.alejanf.skynet.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void recordSuccessfulLogin(String userId, LocalDateTime lastLogin, String newPasswordHash) {
+        Update update = new Update()
+                .set("failedLoginAttempts", 0)
+                .set("lastLogin", lastLogin);
+        if (newPasswordHash != null) {
+            update.set("password", newPasswordHash).set("updatedAt", lastLogin);
+        }
+        mongoTemplate.updateFirst(query(where("id").is(userId)), update, User.class);
+    }
+
+    @Override
+    public void incrementFailedLoginAttempts(String userId) {
+        // $inc atómico: los intentos en paralelo no se pisan entre sí
+        mongoTemplate.updateFirst(query(where("id").is(userId)), new Update().inc("failedLoginAttempts", 1), User.class);
+    }
+}
@@ -4,6 +4,7 @@ import com.alejanf.skynet.dto.AuthResponseDTO;
 import com.alejanf.skynet.dto.LoginRequestDTO;
 import com.alejanf.skynet.dto.RegisterRequestDTO;
 import com.alejanf.skynet.dto.UserDTO;
+import com.alejanf.skynet.exception.HashingCapacityExceededException;
 import com.alejanf.skynet.jwt.JwtTokenProvider;
 import com.alejanf.skynet.model.Role;
 import com.alejanf.skynet.model.User;
@@ -11,38 +12,47 @@ import com.alejanf.skynet.repository.UserRepository;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
 
-    public AuthResponseDTO register(RegisterRequestDTO request, HttpServletResponse response) {
+    public CompletableFuture<AuthResponseDTO> register(RegisterRequestDTO request, HttpServletResponse response) {
         // Verificar si el email ya existe
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
 
+        // El hash se calcula en el pool de BCrypt; el resto continúa cuando termina
+        return passwordHashingService.encode(request.getPassword())
+                .thenApply(encodedPassword -> completeRegistration(request, encodedPassword, response));
+    }
+
+    private AuthResponseDTO completeRegistration(RegisterRequestDTO request, String encodedPassword,
+                                                 HttpServletResponse response) {
         // Crear nuevo usuario
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setPhone(request.getPhone());
         user.setRole(Role.USER);
         user.setActive(true);
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         user.setFailedLoginAttempts(0);
+        // El registro cuenta como primer login: se guarda en el mismo insert
+        user.setLastLogin(LocalDateTime.now());
 
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.insert(user);
 
         // Generar token JWT
         String token = jwtTokenProvider.generateToken(savedUser.getEmail(), savedUser.getId());
@@ -51,17 +61,13 @@ public class AuthService {
         Cookie jwtCookie = createSecureCookie(token);
         response.addCookie(jwtCookie);
 
-        // Actualizar lastLogin
-        savedUser.setLastLogin(LocalDateTime.now());
-        userRepository.save(savedUser);
-
         // Convertir a DTO
         UserDTO userDTO = convertToDTO(savedUser);
 
         return new AuthResponseDTO("User registered successfully", userDTO);
     }
 
-    public AuthResponseDTO login(LoginRequestDTO request, HttpServletResponse response) {
+    public CompletableFuture<AuthResponseDTO> login(LoginRequestDTO request, HttpServletResponse response) {
         // Buscar usuario por email
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid email or password"));
@@ -71,18 +77,38 @@ public class AuthService {
             throw new RuntimeException("User account is disabled");
         }
 
-        // Verificar contraseña
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            // Incrementar intentos fallidos
-            user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-            userRepository.save(user);
-            throw new RuntimeException("Invalid email or password");
+        // Verificar contraseña en el pool de BCrypt
+        return passwordHashingService.matches(request.getPassword(), user.getPassword())
+                .thenCompose(matches -> {
+                    if (!matches) {
+                        // Incrementar intentos fallidos
+                        userRepository.incrementFailedLoginAttempts(user.getId());
+                        throw new RuntimeException("Invalid email or password");
+                    }
+                    return rehashIfNeeded(user, request.getPassword());
+                })
+                .thenApply(rehashedPassword -> completeLogin(user, rehashedPassword, response));
+    }
+
+    // Si el hash se creó con un coste inferior al configurado, se regenera ahora que tenemos la contraseña
+    private CompletableFuture<String> rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return passwordHashingService.encode(rawPassword);
+        } catch (HashingCapacityExceededException e) {
+            // Con el pool saturado se deja para el próximo login
+            return CompletableFuture.completedFuture(null);
         }
+    }
 
-        // Resetear intentos fallidos en caso de login exitoso
+    private AuthResponseDTO completeLogin(User user, String rehashedPassword, HttpServletResponse response) {
+        // Resetear intentos fallidos en caso de login exitoso (y guardar el nuevo hash si lo hay)
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.recordSuccessfulLogin(user.getId(), now, rehashedPassword);
         user.setFailedLoginAttempts(0);
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        user.setLastLogin(now);
 
         // Generar token JWT
         String token = jwtTokenProvider.generateToken(user.getEmail(), user.getId());
@@ -0,0 +1,401 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.AutocompleteDTO;
+import com.alejanf.skynet.model.Category;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.SearchText;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Índice de prefijos en memoria para el autocompletado: nunca consulta Mongo por pulsación.
+// Se construye al arrancar y se actualiza con los eventos de guardado de productos y categorías.
+@Slf4j
+@Component
+public class AutocompleteIndex {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    // Orden de las postings de productos; el id al final lo hace total, como exige el skip list
+    private static final Comparator<ProductEntry> BY_RATING = Comparator
+            .comparingDouble(ProductEntry::rating).reversed()
+            .thenComparing(Comparator.comparingInt(ProductEntry::ratingCount).reversed())
+            .thenComparing(ProductEntry::name, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ProductEntry::id);
+
+    private final MongoTemplate mongoTemplate;
+
+    // Reconstruir crea un estado nuevo y lo publica de golpe; los lectores nunca ven un índice a medias
+    private volatile State state = new State();
+
+    // Las escrituras se serializan entre sí; mientras hay un rebuild en curso se apuntan también en
+    // pending para repetirlas sobre el estado nuevo antes de publicarlo, si no se perderían en el cambio
+    private final Object writeLock = new Object();
+    private List<Consumer<State>> pending;
+
+    public AutocompleteIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("autocomplete.products", this, index -> index.state.products.size())
+                .register(meterRegistry);
+        Gauge.builder("autocomplete.terms", this, index -> index.state.termCount())
+                .register(meterRegistry);
+        Gauge.builder("autocomplete.memory", this, AutocompleteIndex::estimateMemoryBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the autocomplete index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Sin Mongo el índice queda vacío; se completará con los guardados siguientes o un rebuild
+            log.warn("Could not build autocomplete index: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        State fresh = new State();
+        synchronized (writeLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            load(fresh);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pending = null;
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            state = fresh;
+        }
+        log.info("Autocomplete index built: {} products, {} terms, ~{} KB in {} ms",
+                fresh.products.size(), fresh.termCount(), estimateMemoryBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void load(State fresh) {
+        mongoTemplate.find(query(where("active").is(true)), Category.class).forEach(fresh::putCategory);
+
+        Query activeProducts = query(where("active").is(true)).cursorBatchSize(1000);
+        activeProducts.fields().include("name", "slug", "imageUrl", "tags", "rating", "ratingCount");
+        try (Stream<Product> products = mongoTemplate.stream(activeProducts, Product.class)) {
+            products.forEach(product -> fresh.putProduct(ProductEntry.of(product)));
+        }
+    }
+
+    public void upsertProduct(Product product) {
+        ProductEntry entry = product.isActive() ? ProductEntry.of(product) : null;
+        apply(current -> {
+            current.removeProduct(product.getId());
+            if (entry != null) {
+                current.putProduct(entry);
+            }
+        });
+    }
+
+    public void removeProduct(String productId) {
+        apply(current -> current.removeProduct(productId));
+    }
+
+    // Para updates parciales de la valoración, que no disparan eventos de guardado
+    public void updateRating(String productId, double rating, int ratingCount) {
+        apply(current -> current.updateRating(productId, rating, ratingCount));
+    }
+
+    public void upsertCategory(Category category) {
+        apply(current -> {
+            current.removeCategory(category.getId());
+            if (category.isActive()) {
+                current.putCategory(category);
+            }
+        });
+    }
+
+    public void removeCategory(String categoryId) {
+        apply(current -> current.removeCategory(categoryId));
+    }
+
+    private void apply(Consumer<State> change) {
+        synchronized (writeLock) {
+            change.accept(state);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+
+    public AutocompleteDTO suggest(String prefix, int limit) {
+        String key = SearchText.normalize(prefix);
+        if (key == null || key.isEmpty()) {
+            return new AutocompleteDTO(List.of(), List.of(), List.of());
+        }
+        State current = state;
+
+        // Las postings ya van por valoración: se toman los mejores del prefijo sin recorrerlo entero
+        List<AutocompleteDTO.ProductSuggestion> products = current.productTerms.top(key, limit).stream()
+                .map(entry -> current.products.get(entry.id()))
+                .filter(Objects::nonNull)
+                .map(entry -> new AutocompleteDTO.ProductSuggestion(entry.name(), entry.slug(), entry.imageUrl(), entry.rating()))
+                .toList();
+
+        List<AutocompleteDTO.CategorySuggestion> categories = current.categoryTerms.top(key, limit).stream()
+                .map(current.categories::get)
+                .filter(Objects::nonNull)
+                .map(category -> new AutocompleteDTO.CategorySuggestion(category.getName(), category.getSlug()))
+                .toList();
+
+        // Los tags más usados primero
+        List<String> tags = current.tagTerms.mostFrequent(key, limit);
+
+        return new AutocompleteDTO(products, categories, tags);
+    }
+
+    // Estimación aproximada (cabeceras de objeto, nodos del skip list y cadenas Latin-1 compactas)
+    public long estimateMemoryBytes() {
+        State current = state;
+        long bytes = current.productTerms.estimateBytes() + current.tagTerms.estimateBytes()
+                + current.categoryTerms.estimateBytes();
+        for (ProductEntry entry : current.products.values()) {
+            bytes += 96 + stringBytes(entry.name()) + stringBytes(entry.slug()) + stringBytes(entry.imageUrl())
+                    + 16L * (entry.terms().size() + entry.tags().size());
+        }
+        bytes += 160L * current.categories.size();
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    // El nombre completo y cada una de sus palabras, normalizados
+    private static Set<String> termsOf(String text) {
+        Set<String> terms = new HashSet<>();
+        String normalized = SearchText.normalize(text);
+        if (normalized == null || normalized.isEmpty()) {
+            return terms;
+        }
+        terms.add(normalized);
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private record ProductEntry(String id, String name, String slug, String imageUrl,
+                                double rating, int ratingCount, Set<String> terms, Set<String> tags) {
+
+        static ProductEntry of(Product product) {
+            Set<String> tags = new HashSet<>();
+            if (product.getTags() != null) {
+                product.getTags().stream().map(SearchText::normalize).filter(Objects::nonNull).forEach(tags::add);
+            }
+            return new ProductEntry(product.getId(), product.getName(), product.getSlug(), product.getImageUrl(),
+                    product.getRating() != null ? product.getRating() : 0.0,
+                    product.getRatingCount() != null ? product.getRatingCount() : 0,
+                    termsOf(product.getName()), tags);
+        }
+
+        ProductEntry withRating(double rating, int ratingCount) {
+            return new ProductEntry(id, name, slug, imageUrl, rating, ratingCount, terms, tags);
+        }
+    }
+
+    private static final class State {
+
+        final Map<String, ProductEntry> products = new ConcurrentHashMap<>();
+        final Map<String, Category> categories = new ConcurrentHashMap<>();
+        final Map<String, Set<String>> categoryTermsById = new ConcurrentHashMap<>();
+        final PrefixIndex<ProductEntry> productTerms = PrefixIndex.sorted(BY_RATING);
+        // Los tags solo se ordenan por número de productos: un set hash da size() en tiempo constante
+        final PrefixIndex<String> tagTerms = PrefixIndex.unordered();
+        final PrefixIndex<String> categoryTerms = PrefixIndex.<String>sorted(Comparator.<String>naturalOrder());
+
+        void putProduct(ProductEntry entry) {
+            products.put(entry.id(), entry);
+            entry.terms().forEach(term -> productTerms.add(term, entry));
+            entry.tags().forEach(tag -> tagTerms.add(tag, entry.id()));
+        }
+
+        void removeProduct(String productId) {
+            ProductEntry previous = products.remove(productId);
+            if (previous != null) {
+                previous.terms().forEach(term -> productTerms.remove(term, previous));
+                previous.tags().forEach(tag -> tagTerms.remove(tag, productId));
+            }
+        }
+
+        // La valoración forma parte del orden de las postings: se recoloca la entrada en cada término
+        void updateRating(String productId, double rating, int ratingCount) {
+            ProductEntry previous = products.get(productId);
+            if (previous != null) {
+                removeProduct(productId);
+                putProduct(previous.withRating(rating, ratingCount));
+            }
+        }
+
+        void putCategory(Category category) {
+            Set<String> terms = termsOf(category.getName());
+            categories.put(category.getId(), category);
+            categoryTermsById.put(category.getId(), terms);
+            terms.forEach(term -> categoryTerms.add(term, category.getId()));
+        }
+
+        void removeCategory(String categoryId) {
+            categories.remove(categoryId);
+            Set<String> terms = categoryTermsById.remove(categoryId);
+            if (terms != null) {
+                terms.forEach(term -> categoryTerms.remove(term, categoryId));
+            }
+        }
+
+        int termCount() {
+            return productTerms.size() + tagTerms.size() + categoryTerms.size();
+        }
+    }
+
+    // Término normalizado -> valores. El skip list mantiene el orden de los términos, así un prefijo es un
+    // subMap contiguo; en los índices ordenados cada posting va además ordenada con su comparador.
+    private static final class PrefixIndex<T> {
+
+        private final Comparator<T> order;
+        private final Supplier<Set<T>> newPostings;
+        private final ConcurrentSkipListMap<String, Set<T>> postings = new ConcurrentSkipListMap<>();
+
+        private PrefixIndex(Comparator<T> order, Supplier<Set<T>> newPostings) {
+            this.order = order;
+            this.newPostings = newPostings;
+        }
+
+        static <T> PrefixIndex<T> sorted(Comparator<T> order) {
+            return new PrefixIndex<>(order, () -> new ConcurrentSkipListSet<>(order));
+        }
+
+        static <T> PrefixIndex<T> unordered() {
+            return new PrefixIndex<>(null, ConcurrentHashMap::newKeySet);
+        }
+
+        void add(String term, T value) {
+            postings.compute(term, (key, values) -> {
+                Set<T> target = values != null ? values : newPostings.get();
+                target.add(value);
+                return target;
+            });
+        }
+
+        void remove(String term, T value) {
+            postings.computeIfPresent(term, (key, values) -> {
+                values.remove(value);
+                return values.isEmpty() ? null : values;
+            });
+        }
+
+        // Los primeros limit valores distintos del prefijo según el comparador: mezcla las postings de todos
+        // los términos del rango y para en cuanto tiene limit, sin depender del orden léxico de los términos
+        List<T> top(String prefix, int limit) {
+            if (order == null) {
+                throw new IllegalStateException("top() requires a sorted prefix index");
+            }
+            PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head, b.head));
+            for (Set<T> values : range(prefix).values()) {
+                Cursor<T> cursor = new Cursor<>(values.iterator());
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+
+            Set<T> top = new LinkedHashSet<>();
+            while (top.size() < limit && !heads.isEmpty()) {
+                Cursor<T> cursor = heads.poll();
+                // Un producto aparece en varios términos del mismo prefijo (nombre completo y palabras)
+                top.add(cursor.head);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            return new ArrayList<>(top);
+        }
+
+        // Los limit términos del prefijo con más valores; recorre términos, no valores
+        List<String> mostFrequent(String prefix, int limit) {
+            Comparator<Map.Entry<String, Integer>> byCount = Map.Entry.<String, Integer>comparingByValue()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+            PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<>(byCount);
+            for (Map.Entry<String, Set<T>> entry : range(prefix).entrySet()) {
+                top.add(Map.entry(entry.getKey(), entry.getValue().size()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            return top.stream()
+                    .sorted(byCount.reversed())
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        int size() {
+            return postings.size();
+        }
+
+        long estimateBytes() {
+            long bytes = 0;
+            for (Map.Entry<String, Set<T>> entry : postings.entrySet()) {
+                bytes += 48 + stringBytes(entry.getKey()) + 64 + 32L * entry.getValue().size();
+            }
+            return bytes;
+        }
+
+        private Map<String, Set<T>> range(String prefix) {
+            return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+    }
+
+    private static final class Cursor<T> {
+
+        private final Iterator<T> values;
+        private T head;
+
+        Cursor(Iterator<T> values) {
+            this.values = values;
+        }
+
+        boolean advance() {
+            head = values.hasNext() ? values.next() : null;
+            return head != null;
+        }
+    }
+}
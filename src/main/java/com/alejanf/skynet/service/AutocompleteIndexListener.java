@@ -0,0 +1,39 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Category;
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Mantiene el índice de autocompletado al día con los guardados y borrados de productos y categorías
+@Component
+@RequiredArgsConstructor
+public class AutocompleteIndexListener extends AbstractMongoEventListener<Object> {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof Product product) {
+            autocompleteIndex.upsertProduct(product);
+        } else if (event.getSource() instanceof Category category) {
+            autocompleteIndex.upsertCategory(category);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Object id = event.getSource().get("_id");
+        if (id == null) {
+            return;
+        }
+        if (Product.class.equals(event.getType())) {
+            autocompleteIndex.removeProduct(id.toString());
+        } else if (Category.class.equals(event.getType())) {
+            autocompleteIndex.removeCategory(id.toString());
+        }
+    }
+}
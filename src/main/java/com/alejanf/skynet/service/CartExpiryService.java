@@ -0,0 +1,112 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Cart;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Limpieza de carritos abandonados. El compactador los borra por lotes al cumplir la retención; el índice TTL
+// (retención + margen) es la red de seguridad por si el compactador no corre. Un carrito no retiene stock
+// (las reservas nacen al crear el pedido), así que al borrarlo no hay nada que liberar ni a quién avisar.
+@Slf4j
+@Service
+public class CartExpiryService {
+
+    private static final String TTL_INDEX = "updatedAt_ttl";
+
+    private final MongoTemplate mongoTemplate;
+    private final Clock clock;
+    private final Duration retention;
+    private final Duration ttlGrace;
+    private final int batchSize;
+    private final Counter expiredCarts;
+
+    public CartExpiryService(MongoTemplate mongoTemplate, Clock clock,
+                             MeterRegistry meterRegistry,
+                             @Value("${skynet.cart.retention:P30D}") Duration retention,
+                             @Value("${skynet.cart.ttl-grace:PT6H}") Duration ttlGrace,
+                             @Value("${skynet.cart.compaction.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.clock = clock;
+        this.retention = retention;
+        this.ttlGrace = ttlGrace;
+        this.batchSize = batchSize;
+        this.expiredCarts = Counter.builder("cart.expired").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTtlIndex() {
+        long expireAfterSeconds = retention.plus(ttlGrace).toSeconds();
+        try {
+            mongoTemplate.indexOps(Cart.class).ensureIndex(new Index("updatedAt", Sort.Direction.ASC)
+                    .named(TTL_INDEX)
+                    .expire(expireAfterSeconds, TimeUnit.SECONDS));
+        } catch (RuntimeException e) {
+            // Índice creado con otra retención: se ajusta en caliente sin reconstruirlo
+            try {
+                mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(Cart.class))
+                        .append("index", new Document("name", TTL_INDEX).append("expireAfterSeconds", expireAfterSeconds)));
+            } catch (RuntimeException collModError) {
+                log.warn("Could not ensure cart TTL index: {}", collModError.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${skynet.cart.compaction.interval-ms:300000}")
+    public void scheduledCompaction() {
+        try {
+            int expired = compactExpiredCarts();
+            if (expired > 0) {
+                log.info("Expired {} abandoned carts", expired);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cart compaction failed: {}", e.getMessage());
+        }
+    }
+
+    public int compactExpiredCarts() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(retention);
+        int expired = 0;
+
+        while (true) {
+            // Recorre el índice de updatedAt: solo toca los carritos caducados
+            Query candidates = query(where("updatedAt").lt(cutoff)).limit(batchSize);
+            candidates.fields().include("_id");
+            List<String> batch = mongoTemplate.find(candidates, Cart.class).stream().map(Cart::getId).toList();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            // Un solo borrado por lote. La condición se repite: un carrito editado entretanto se conserva, y con
+            // varias instancias compactando cada una cuenta solo lo que ha borrado ella (deletedCount)
+            long deleted = mongoTemplate.remove(query(where("_id").in(batch).and("updatedAt").lt(cutoff)), Cart.class)
+                    .getDeletedCount();
+            expiredCarts.increment(deleted);
+            expired += (int) deleted;
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,190 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.CartDTO;
+import com.alejanf.skynet.model.Cart;
+import com.alejanf.skynet.model.CartItem;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Cada cambio del carrito es un único update atómico sobre el documento (posicional o $push/$pull)
+// que ajusta totalPrice y totalQuantity con $inc. Las carreras se resuelven con condiciones tipo CAS.
+@Service
+@RequiredArgsConstructor
+public class CartService {
+
+    private static final int MAX_RETRIES = 5;
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final CartRepository cartRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CatalogLookupService catalogLookupService;
+    private final Clock clock;
+
+    public CartDTO getCart(String userId) {
+        return cartRepository.findByUserId(userId).map(CartDTO::fromEntity).orElseGet(() -> CartDTO.empty(userId));
+    }
+
+    public CartDTO addItem(String userId, String variantId, int quantity) {
+        CatalogLookupService.CatalogLookup lookup = catalogLookupService.resolve(List.of(), List.of(variantId));
+        ProductVariant variant = lookup.variant(variantId);
+        Product product = lookup.product(variant.getProductId());
+        if (!product.isActive()) {
+            throw new RuntimeException("Product not available: " + product.getId());
+        }
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            // Caso habitual: la línea ya existe con el precio actual, un $inc posicional sin lecturas previas
+            Cart cart = incrementItem(userId, variantId, variant.getPrice(), quantity);
+            if (cart == null) {
+                cart = pushItem(userId, newItem(product, variant, quantity));
+            }
+            if (cart == null) {
+                // La línea existe con un precio anterior: se incrementa con el precio guardado en ella
+                CartItem stored = findItem(userId, variantId);
+                if (stored != null) {
+                    cart = incrementItem(userId, variantId, stored.getPrice(), quantity);
+                }
+            }
+            if (cart != null) {
+                return CartDTO.fromEntity(cart);
+            }
+        }
+        throw new RuntimeException("Cart update conflict for user " + userId);
+    }
+
+    public CartDTO updateQuantity(String userId, String variantId, int quantity) {
+        if (quantity == 0) {
+            return removeItem(userId, variantId);
+        }
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            CartItem stored = findItem(userId, variantId);
+            if (stored == null) {
+                throw new RuntimeException("Item not in cart: " + variantId);
+            }
+            int delta = quantity - stored.getQuantity();
+            if (delta == 0) {
+                return getCart(userId);
+            }
+            // CAS: solo se aplica si la cantidad sigue siendo la leída, así el delta del total es exacto
+            Query query = query(where("userId").is(userId)
+                    .and("items").elemMatch(where("variantId").is(variantId).and("quantity").is(stored.getQuantity())));
+            Update update = new Update()
+                    .set("items.$.quantity", quantity)
+                    .inc("totalPrice", decimal(stored.getPrice().multiply(BigDecimal.valueOf(delta))))
+                    .inc("totalQuantity", delta)
+                    .set("updatedAt", LocalDateTime.now(clock));
+            Cart cart = mongoTemplate.findAndModify(query, update, RETURN_NEW, Cart.class);
+            if (cart != null) {
+                return CartDTO.fromEntity(cart);
+            }
+        }
+        throw new RuntimeException("Cart update conflict for user " + userId);
+    }
+
+    public CartDTO removeItem(String userId, String variantId) {
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            CartItem stored = findItem(userId, variantId);
+            if (stored == null) {
+                return getCart(userId);
+            }
+            Query query = query(where("userId").is(userId)
+                    .and("items").elemMatch(where("variantId").is(variantId).and("quantity").is(stored.getQuantity())));
+            Update update = new Update()
+                    .pull("items", new Document("variantId", variantId))
+                    .inc("totalPrice", decimal(stored.getTotalPrice().negate()))
+                    .inc("totalQuantity", -stored.getQuantity())
+                    .set("updatedAt", LocalDateTime.now(clock));
+            Cart cart = mongoTemplate.findAndModify(query, update, RETURN_NEW, Cart.class);
+            if (cart != null) {
+                return CartDTO.fromEntity(cart);
+            }
+        }
+        throw new RuntimeException("Cart update conflict for user " + userId);
+    }
+
+    public void clearCart(String userId) {
+        mongoTemplate.updateFirst(query(where("userId").is(userId)),
+                new Update()
+                        .set("items", List.of())
+                        .set("totalPrice", decimal(BigDecimal.ZERO))
+                        .set("totalQuantity", 0)
+                        .set("updatedAt", LocalDateTime.now(clock)),
+                Cart.class);
+    }
+
+    private Cart incrementItem(String userId, String variantId, BigDecimal price, int quantity) {
+        Query query = query(where("userId").is(userId)
+                .and("items").elemMatch(where("variantId").is(variantId).and("price").is(decimal(price))));
+        Update update = new Update()
+                .inc("items.$.quantity", quantity)
+                .inc("totalPrice", decimal(price.multiply(BigDecimal.valueOf(quantity))))
+                .inc("totalQuantity", quantity)
+                .set("updatedAt", LocalDateTime.now(clock));
+        return mongoTemplate.findAndModify(query, update, RETURN_NEW, Cart.class);
+    }
+
+    // Añade la línea si no está; con upsert crea además el carrito la primera vez
+    private Cart pushItem(String userId, CartItem item) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Query query = query(where("userId").is(userId).and("items.variantId").ne(item.getVariantId()));
+        Update update = new Update()
+                .push("items", item)
+                .inc("totalPrice", decimal(item.getTotalPrice()))
+                .inc("totalQuantity", item.getQuantity())
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), Cart.class);
+        } catch (DuplicateKeyException e) {
+            // El carrito existe y ya contiene la variante (el upsert chocó con el índice único de userId)
+            return null;
+        }
+    }
+
+    public boolean hasItem(String userId, String variantId) {
+        return mongoTemplate.exists(query(where("userId").is(userId).and("items.variantId").is(variantId)), Cart.class);
+    }
+
+    private CartItem findItem(String userId, String variantId) {
+        Query query = query(where("userId").is(userId).and("items.variantId").is(variantId));
+        query.fields().elemMatch("items", where("variantId").is(variantId));
+        Cart cart = mongoTemplate.findOne(query, Cart.class);
+        if (cart == null || cart.getItems() == null || cart.getItems().isEmpty()) {
+            return null;
+        }
+        return cart.getItems().get(0);
+    }
+
+    private static CartItem newItem(Product product, ProductVariant variant, int quantity) {
+        CartItem item = new CartItem();
+        item.setProductId(product.getId());
+        item.setVariantId(variant.getId());
+        item.setProductName(product.getName());
+        item.setPrice(variant.getPrice());
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Decimal128 decimal(BigDecimal value) {
+        return new Decimal128(value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.alejanf.skynet.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Escritura diferida opcional de cantidades: los cambios rápidos sobre la misma línea se quedan en memoria
+// y solo se escribe la última cantidad. Cualquier otra operación del usuario vacía antes su buffer.
+// Los volcados de un mismo usuario se serializan: el programado y el de una petición no pueden cruzarse
+// y dejar escrita al final una cantidad anterior.
+@Slf4j
+@Component
+public class CartWriteBuffer {
+
+    private final CartService cartService;
+    private final boolean enabled;
+    private final Counter bufferedWrites;
+    private final Counter coalescedWrites;
+
+    // userId -> (variantId -> cantidad final)
+    private final Map<String, Map<String, Integer>> pending = new ConcurrentHashMap<>();
+
+    // Locks por franjas de userId: acotados en memoria, y dos usuarios solo esperan si comparten franja
+    private final Object[] drainLocks = new Object[64];
+
+    public CartWriteBuffer(CartService cartService, MeterRegistry meterRegistry,
+                           @Value("${skynet.cart.write-behind.enabled:false}") boolean enabled) {
+        this.cartService = cartService;
+        this.enabled = enabled;
+        for (int i = 0; i < drainLocks.length; i++) {
+            drainLocks[i] = new Object();
+        }
+        this.bufferedWrites = Counter.builder("cart.writes.buffered").register(meterRegistry);
+        this.coalescedWrites = Counter.builder("cart.writes.coalesced")
+                .description("Quantity changes absorbed by a later change before reaching Mongo")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Solo acepta cambios sobre líneas que existen; si no, se perderían en el volcado sin que nadie lo sepa
+    public boolean setQuantity(String userId, String variantId, int quantity) {
+        if (!cartService.hasItem(userId, variantId)) {
+            return false;
+        }
+        bufferedWrites.increment();
+        pending.compute(userId, (key, items) -> {
+            Map<String, Integer> target = items != null ? items : new LinkedHashMap<>();
+            if (target.put(variantId, quantity) != null) {
+                coalescedWrites.increment();
+            }
+            return target;
+        });
+        return true;
+    }
+
+    // Aplica lo pendiente de un usuario; se llama antes de leer o modificar su carrito por otra vía
+    public void drain(String userId) {
+        synchronized (drainLocks[Math.floorMod(userId.hashCode(), drainLocks.length)]) {
+            Map<String, Integer> items = pending.remove(userId);
+            if (items == null) {
+                return;
+            }
+            items.forEach((variantId, quantity) -> {
+                try {
+                    cartService.updateQuantity(userId, variantId, quantity);
+                } catch (RuntimeException e) {
+                    // p. ej. la línea se eliminó entretanto: el cambio ya no aplica
+                    log.warn("Dropped buffered quantity for user {} variant {}: {}", userId, variantId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${skynet.cart.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        for (String userId : pending.keySet()) {
+            drain(userId);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,64 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.exception.ProductNotFoundException;
+import com.alejanf.skynet.exception.VariantNotFoundException;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.ProductRepository;
+import com.alejanf.skynet.repository.ProductVariantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Resuelve de una vez todos los productos y variantes referenciados por un pedido o carrito:
+// una consulta $in por colección en lugar de un findById por línea
+@Service
+@RequiredArgsConstructor
+public class CatalogLookupService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+
+    public CatalogLookup resolve(Collection<String> productIds, Collection<String> variantIds) {
+        Map<String, ProductVariant> variants = new HashMap<>();
+        if (!variantIds.isEmpty()) {
+            productVariantRepository.findAllById(new HashSet<>(variantIds))
+                    .forEach(variant -> variants.put(variant.getId(), variant));
+        }
+
+        // Incluye también los productos padre de las variantes aunque la línea no los indique
+        Set<String> allProductIds = new HashSet<>(productIds);
+        variants.values().forEach(variant -> allProductIds.add(variant.getProductId()));
+
+        Map<String, Product> products = new HashMap<>();
+        if (!allProductIds.isEmpty()) {
+            productRepository.findAllById(allProductIds)
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+        return new CatalogLookup(products, variants);
+    }
+
+    public record CatalogLookup(Map<String, Product> products, Map<String, ProductVariant> variants) {
+
+        public Product product(String productId) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException(productId);
+            }
+            return product;
+        }
+
+        public ProductVariant variant(String variantId) {
+            ProductVariant variant = variants.get(variantId);
+            if (variant == null) {
+                throw new VariantNotFoundException(variantId);
+            }
+            return variant;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.config.CacheConfig;
+import com.alejanf.skynet.model.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Las categorías cambian muy poco: cualquier escritura vacía su caché completa
+@Component
+@RequiredArgsConstructor
+public class CategoryCacheEvictionListener extends AbstractMongoEventListener<Category> {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Category> event) {
+        clearCategories();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Category> event) {
+        clearCategories();
+    }
+
+    private void clearCategories() {
+        Cache categories = cacheManager.getCache(CacheConfig.CATEGORIES);
+        if (categories != null) {
+            categories.clear();
+        }
+    }
+}
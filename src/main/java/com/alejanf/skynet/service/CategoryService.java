@@ -0,0 +1,31 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.config.CacheConfig;
+import com.alejanf.skynet.dto.CategoryDTO;
+import com.alejanf.skynet.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'all'")
+    public List<CategoryDTO> getActiveCategories() {
+        return categoryRepository.findByActiveTrue().stream()
+                .map(CategoryDTO::fromEntity)
+                .toList();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "'slug:' + #slug", unless = "#result == null")
+    public CategoryDTO getCategoryBySlug(String slug) {
+        return categoryRepository.findBySlug(slug)
+                .map(CategoryDTO::fromEntity)
+                .orElse(null);
+    }
+}
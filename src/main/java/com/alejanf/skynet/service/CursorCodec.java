@@ -0,0 +1,33 @@
+package com.alejanf.skynet.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor opaco para paginación keyset: "clave|valor|id" en Base64 URL
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String sortKey, String value, String id) {
+        String raw = sortKey + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Devuelve {clave, valor, id}
+    public static String[] decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,11 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.model.OrderEventType;
+
+import java.time.LocalDateTime;
+
+// Lo que recibe cada OrderEventHandler. order es el estado del pedido en el momento de la entrega,
+// que puede ir por delante del evento (p. ej. un PLACED entregado cuando el pedido ya está pagado).
+public record OrderEvent(String eventId, OrderEventType type, LocalDateTime occurredAt, int attempt, OrderDTO order) {
+}
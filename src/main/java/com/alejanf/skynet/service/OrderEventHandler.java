@@ -0,0 +1,16 @@
+package com.alejanf.skynet.service;
+
+// Trabajo lento posterior al pedido (emails, almacén, analítica, auditoría de stock). Basta con declarar
+// un bean que implemente esta interfaz para que OrderOutboxDispatcher le entregue los eventos.
+// La entrega es al menos una vez y en orden por pedido: un handler puede recibir un evento repetido
+// (p. ej. si el lease caduca a mitad de entrega) y debe ser idempotente por eventId.
+// Lanzar una excepción pide un reintento con backoff.
+public interface OrderEventHandler {
+
+    // Identifica al handler para no repetirle un evento que ya procesó cuando falla otro
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    void handle(OrderEvent event);
+}
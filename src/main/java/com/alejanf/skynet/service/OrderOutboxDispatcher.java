@@ -0,0 +1,244 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Entrega en segundo plano los eventos de la outbox de cada pedido a los OrderEventHandler registrados.
+// Cada pedido se reclama con un lease (update condicional), así que puede correr en varias instancias
+// a la vez sin que dos entreguen eventos del mismo pedido; dentro del pedido se entregan en orden y
+// un fallo detiene los siguientes hasta que el reintento (con backoff exponencial) lo supere.
+@Slf4j
+@Component
+public class OrderOutboxDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final List<OrderEventHandler> handlers;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final int maxAttempts;
+
+    private final Counter dispatchedEvents;
+    private final Counter retriedEvents;
+    private final Counter deadEvents;
+    private final Timer deliveryLag;
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    public OrderOutboxDispatcher(MongoTemplate mongoTemplate, ObjectProvider<OrderEventHandler> handlers, Clock clock,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${skynet.outbox.dispatch.enabled:true}") boolean enabled,
+                                 @Value("${skynet.outbox.dispatch.batch-size:100}") int batchSize,
+                                 @Value("${skynet.outbox.dispatch.lease:PT1M}") Duration lease,
+                                 @Value("${skynet.outbox.retry.backoff:PT1S}") Duration backoffBase,
+                                 @Value("${skynet.outbox.retry.max-backoff:PT5M}") Duration backoffMax,
+                                 @Value("${skynet.outbox.retry.max-attempts:10}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.handlers = handlers.orderedStream().toList();
+        this.clock = clock;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.maxAttempts = maxAttempts;
+        // Throughput: tasa de outbox.events.dispatched; lag: espera por evento y antigüedad de lo pendiente
+        this.dispatchedEvents = Counter.builder("outbox.events.dispatched").register(meterRegistry);
+        this.retriedEvents = Counter.builder("outbox.events.retried").register(meterRegistry);
+        this.deadEvents = Counter.builder("outbox.events.dead").register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag").register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending", oldestPendingSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${skynet.outbox.dispatch.interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    // Una pasada: reclama hasta batchSize pedidos con eventos pendientes (los más antiguos primero)
+    // y devuelve cuántos eventos se han entregado
+    public int dispatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Query due = query(claimable(now)).with(Sort.by("outboxDueAt")).limit(batchSize);
+        due.fields().include("id");
+
+        int delivered = 0;
+        for (Order candidate : mongoTemplate.find(due, Order.class)) {
+            String token = new ObjectId().toHexString();
+            Order order = mongoTemplate.findAndModify(
+                    query(where("id").is(candidate.getId()).andOperator(claimable(now))),
+                    new Update().set("outboxLockedUntil", now.plus(lease)).set("outboxLockedBy", token),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Order.class);
+            // null: otra instancia lo ha reclamado entre la búsqueda y el update
+            if (order != null) {
+                delivered += deliver(order, token);
+            }
+        }
+        updateOldestPending(now);
+        return delivered;
+    }
+
+    private Criteria claimable(LocalDateTime now) {
+        return where("outboxDueAt").lte(now)
+                .orOperator(where("outboxLockedUntil").is(null), where("outboxLockedUntil").lte(now));
+    }
+
+    private int deliver(Order order, String token) {
+        OrderDTO snapshot = OrderDTO.fromEntity(order);
+        List<String> done = new ArrayList<>();
+
+        List<OutboxEvent> outbox = order.getOutbox() != null ? order.getOutbox() : List.of();
+        for (int i = 0; i < outbox.size(); i++) {
+            OutboxEvent event = outbox.get(i);
+            // Solo el primer evento pendiente puede traer estado de intentos anteriores
+            boolean head = i == 0;
+            Set<String> deliveredTo = new HashSet<>();
+            int attempt = 1;
+            if (head && order.getOutboxDeliveredTo() != null) {
+                deliveredTo.addAll(order.getOutboxDeliveredTo());
+            }
+            if (head && order.getOutboxAttempts() != null) {
+                attempt += order.getOutboxAttempts();
+            }
+
+            RuntimeException failure = null;
+            for (OrderEventHandler handler : handlers) {
+                if (deliveredTo.contains(handler.name())) {
+                    continue;
+                }
+                try {
+                    handler.handle(new OrderEvent(event.getEventId(), event.getType(), event.getCreatedAt(), attempt, snapshot));
+                    deliveredTo.add(handler.name());
+                } catch (RuntimeException e) {
+                    log.warn("Order event {} {} failed in {} (attempt {}): {}",
+                            order.getId(), event.getType(), handler.name(), attempt, e.getMessage());
+                    failure = e;
+                }
+            }
+
+            if (failure != null) {
+                fail(order.getId(), token, done, event, attempt, deliveredTo, failure);
+                return done.size();
+            }
+            done.add(event.getEventId());
+            dispatchedEvents.increment();
+            deliveryLag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now(clock)));
+        }
+
+        complete(order.getId(), token, done);
+        return done.size();
+    }
+
+    // Todo entregado: se retiran los eventos y se libera el lease. Los que hayan llegado durante la
+    // entrega siguen en la outbox y outboxDueAt los mantiene reclamables.
+    private void complete(String orderId, String token, List<String> done) {
+        Update update = new Update()
+                .unset("outboxLockedUntil").unset("outboxLockedBy")
+                .unset("outboxAttempts").unset("outboxDeliveredTo");
+        pull(update, done);
+        if (!release(orderId, token, update)) {
+            return;
+        }
+        // Outbox vacía: el pedido deja de aparecer en el índice de pendientes
+        mongoTemplate.updateFirst(
+                query(where("id").is(orderId).and("outbox").size(0).and("outboxLockedBy").is(null)),
+                new Update().unset("outboxDueAt"),
+                Order.class);
+    }
+
+    // Fallo en un evento: se retiran los anteriores ya entregados y el pedido queda bloqueado hasta que
+    // pase el backoff. Agotados los intentos, el evento se aparta para no frenar a los siguientes.
+    private void fail(String orderId, String token, List<String> done, OutboxEvent event, int attempt,
+                      Set<String> deliveredTo, RuntimeException failure) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Update update = new Update().unset("outboxLockedBy");
+        List<String> pulled = new ArrayList<>(done);
+
+        if (attempt >= maxAttempts) {
+            event.setLastError(failure.getMessage());
+            pulled.add(event.getEventId());
+            update.push("outboxDeadLetters", event)
+                    .unset("outboxAttempts").unset("outboxDeliveredTo").unset("outboxLockedUntil");
+            deadEvents.increment();
+            log.error("Order event {} {} moved to dead letters after {} attempts", orderId, event.getType(), attempt);
+        } else {
+            update.set("outboxAttempts", attempt)
+                    .set("outboxDeliveredTo", deliveredTo)
+                    .set("outboxLockedUntil", now.plus(backoff(attempt)));
+            retriedEvents.increment();
+        }
+        pull(update, pulled);
+        release(orderId, token, update);
+    }
+
+    private void pull(Update update, List<String> eventIds) {
+        if (!eventIds.isEmpty()) {
+            update.pull("outbox", new Document("eventId", new Document("$in", eventIds)));
+        }
+    }
+
+    // Solo escribe si el lease sigue siendo nuestro; si caducó, otra instancia ya está repitiendo la entrega
+    private boolean release(String orderId, String token, Update update) {
+        boolean owned = mongoTemplate.updateFirst(
+                query(where("id").is(orderId).and("outboxLockedBy").is(token)), update, Order.class)
+                .getModifiedCount() > 0;
+        if (!owned) {
+            log.warn("Outbox lease on order {} expired during delivery", orderId);
+        }
+        return owned;
+    }
+
+    private Duration backoff(int attempt) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private void updateOldestPending(LocalDateTime now) {
+        Query oldest = query(where("outboxDueAt").exists(true)).with(Sort.by("outboxDueAt")).limit(1);
+        oldest.fields().include("outboxDueAt");
+        Order order = mongoTemplate.findOne(oldest, Order.class);
+        oldestPendingSeconds.set(order != null ? Math.max(0, Duration.between(order.getOutboxDueAt(), now).toSeconds()) : 0);
+    }
+}
@@ -0,0 +1,257 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.CreateOrderDTO;
+import com.alejanf.skynet.dto.CreateOrderProductDTO;
+import com.alejanf.skynet.dto.CursorPageDTO;
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.dto.RevenueDTO;
+import com.alejanf.skynet.exception.InvalidOrderException;
+import com.alejanf.skynet.exception.OrderStateException;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderEventType;
+import com.alejanf.skynet.model.OrderProduct;
+import com.alejanf.skynet.model.OrderStatus;
+import com.alejanf.skynet.model.OutboxEvent;
+import com.alejanf.skynet.model.PaymentMethod;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.OrderRepository;
+import com.alejanf.skynet.service.CatalogLookupService.CatalogLookup;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+@RequiredArgsConstructor
+public class OrderService {
+
+    private final OrderRepository orderRepository;
+    private final CatalogLookupService catalogLookupService;
+    private final ReservationService reservationService;
+    private final MongoTemplate mongoTemplate;
+    private final Clock clock;
+
+    private static final String HISTORY_SORT_KEY = "createdAt";
+
+    @Value("${skynet.reservations.hold:PT15M}")
+    private Duration reservationHold;
+
+    public OrderDTO placeOrder(String userId, CreateOrderDTO request) {
+        // Agrupar líneas por variante (ordenadas) para reservar cada SKU una sola vez
+        Map<String, CreateOrderProductDTO> linesByVariant = new TreeMap<>();
+        for (CreateOrderProductDTO line : request.getOrderProducts()) {
+            linesByVariant.merge(line.getVariantId(), line, OrderService::mergeLines);
+        }
+
+        // Resolver todo el catálogo referenciado en dos consultas y construir las líneas
+        // con el nombre y precio actuales (snapshot)
+        CatalogLookup catalog = catalogLookupService.resolve(
+                linesByVariant.values().stream().map(CreateOrderProductDTO::getProductId).toList(),
+                linesByVariant.keySet());
+        List<OrderProduct> orderProducts = new ArrayList<>();
+        for (CreateOrderProductDTO line : linesByVariant.values()) {
+            orderProducts.add(toOrderProduct(line, catalog.product(line.getProductId()), catalog.variant(line.getVariantId())));
+        }
+
+        // Retener el stock hasta el pago: el id del pedido se genera antes para enlazar las retenciones
+        String orderId = new ObjectId().toHexString();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime holdExpiresAt = now.plus(reservationHold);
+        reservationService.reserve(orderId, userId, orderProducts, holdExpiresAt);
+
+        Order order = new Order();
+        order.setId(orderId);
+        order.setUserId(userId);
+        order.setOrderProducts(orderProducts);
+        order.setDeliveryAddress(request.getDeliveryAddress());
+        order.setPaymentMethod(parsePaymentMethod(request.getPaymentMethod()));
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservationExpiresAt(holdExpiresAt);
+        order.setOrderDate(now);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        // El evento viaja en el mismo insert que el pedido (outbox)
+        order.getOutbox().add(OutboxEvent.of(OrderEventType.PLACED, now));
+        order.setOutboxDueAt(now);
+
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.insert(order);
+        } catch (RuntimeException e) {
+            reservationService.releaseOrder(orderId);
+            throw e;
+        }
+
+        return OrderDTO.fromEntity(savedOrder);
+    }
+
+    // Suma en Mongo los totales guardados; no se carga ninguna orden en la JVM
+    public RevenueDTO getRevenue(Collection<OrderStatus> statuses, LocalDateTime from, LocalDateTime to) {
+        Aggregation aggregation = newAggregation(
+                match(where("status").in(statuses).and("createdAt").gte(from).lt(to)),
+                group().sum("totalPrice").as("revenue")
+                        .sum("totalQuantity").as("units")
+                        .count().as("orders"));
+
+        RevenueDTO revenue = mongoTemplate.aggregate(aggregation, Order.class, RevenueDTO.class).getUniqueMappedResult();
+        return revenue != null ? revenue : new RevenueDTO();
+    }
+
+    // Historial del usuario por keyset sobre (createdAt, _id) descendente: sin skip ni count
+    public CursorPageDTO<OrderDTO> getUserOrders(String userId, int size, String cursor) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        // Pedimos uno de más para saber si existe una página siguiente
+        Limit limit = Limit.of(size + 1);
+
+        List<Order> orders;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor);
+            if (!HISTORY_SORT_KEY.equals(parts[0]) || !ObjectId.isValid(parts[2])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime lastCreatedAt;
+            try {
+                lastCreatedAt = LocalDateTime.parse(parts[1]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            orders = orderRepository.findByUserIdBefore(userId, lastCreatedAt, new ObjectId(parts[2]), sort, limit);
+        } else {
+            orders = orderRepository.findByUserId(userId, sort, limit);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Order last = orders.get(size - 1);
+            nextCursor = CursorCodec.encode(HISTORY_SORT_KEY, last.getCreatedAt().toString(), last.getId());
+        }
+
+        return new CursorPageDTO<>(orders.stream().map(OrderDTO::fromEntity).toList(), nextCursor);
+    }
+
+    // PENDING -> PAID solo mientras las retenciones siguen vigentes; el barrido no puede ganar a la vez
+    public OrderDTO payOrder(String orderId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Order order = mongoTemplate.findAndModify(
+                query(where("id").is(orderId)
+                        .and("status").is(OrderStatus.PENDING).and("reservationExpiresAt").gt(now)),
+                withEvent(new Update().set("status", OrderStatus.PAID).set("updatedAt", now), OrderEventType.PAID, now),
+                FindAndModifyOptions.options().returnNew(true),
+                Order.class);
+        if (order == null) {
+            throw new OrderStateException(orderId, "not pending or reservation expired");
+        }
+        reservationService.commitOrder(orderId);
+        return OrderDTO.fromEntity(order);
+    }
+
+    public OrderDTO cancelOrder(String orderId, String userId) {
+        Order order = transitionToCancelled(query(where("id").is(orderId).and("userId").is(userId)
+                .and("status").is(OrderStatus.PENDING)));
+        if (order == null) {
+            throw new OrderStateException(orderId, "not pending");
+        }
+        return OrderDTO.fromEntity(order);
+    }
+
+    // Cancela los pedidos cuyas retenciones han caducado sin pago; lo lanza ReservationSweeper
+    public int expirePendingOrders(int batchSize) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Query expired = query(where("status").is(OrderStatus.PENDING).and("reservationExpiresAt").lt(now)).limit(batchSize);
+        expired.fields().include("id");
+
+        int cancelled = 0;
+        for (Order order : mongoTemplate.find(expired, Order.class)) {
+            // La condición se repite: si el pago ha entrado entretanto, este update no aplica
+            if (transitionToCancelled(query(where("id").is(order.getId())
+                    .and("status").is(OrderStatus.PENDING).and("reservationExpiresAt").lt(now))) != null) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    private Order transitionToCancelled(Query pendingOrder) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Order order = mongoTemplate.findAndModify(pendingOrder,
+                withEvent(new Update().set("status", OrderStatus.CANCELLED).set("updatedAt", now), OrderEventType.CANCELLED, now),
+                FindAndModifyOptions.options().returnNew(true),
+                Order.class);
+        if (order != null) {
+            reservationService.releaseOrder(order.getId());
+        }
+        return order;
+    }
+
+    // Añade el evento a la outbox en el mismo update que el cambio de estado. $min conserva la antigüedad
+    // de lo que ya estuviera pendiente; el lease o el backoff en curso no se tocan.
+    private static Update withEvent(Update update, OrderEventType type, LocalDateTime now) {
+        return update.push("outbox", OutboxEvent.of(type, now)).min("outboxDueAt", now);
+    }
+
+    private OrderProduct toOrderProduct(CreateOrderProductDTO line, Product product, ProductVariant variant) {
+        if (!product.getId().equals(variant.getProductId())) {
+            throw new InvalidOrderException("Variant " + variant.getId() + " does not belong to product " + product.getId());
+        }
+        if (!product.isActive()) {
+            throw new InvalidOrderException("Product is not available: " + product.getId());
+        }
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProductId(product.getId());
+        orderProduct.setVariantId(variant.getId());
+        orderProduct.setProductName(product.getName());
+        orderProduct.setPrice(variant.getPrice() != null ? variant.getPrice() : product.getPrice());
+        orderProduct.setQuantity(line.getQuantity());
+        orderProduct.setDiscount(line.getDiscount() != null ? line.getDiscount() : BigDecimal.ZERO);
+        return orderProduct;
+    }
+
+    private static CreateOrderProductDTO mergeLines(CreateOrderProductDTO first, CreateOrderProductDTO second) {
+        CreateOrderProductDTO merged = new CreateOrderProductDTO();
+        merged.setProductId(first.getProductId());
+        merged.setVariantId(first.getVariantId());
+        merged.setQuantity(first.getQuantity() + second.getQuantity());
+        BigDecimal firstDiscount = first.getDiscount() != null ? first.getDiscount() : BigDecimal.ZERO;
+        BigDecimal secondDiscount = second.getDiscount() != null ? second.getDiscount() : BigDecimal.ZERO;
+        merged.setDiscount(firstDiscount.add(secondDiscount));
+        return merged;
+    }
+
+    private PaymentMethod parsePaymentMethod(String paymentMethod) {
+        if (paymentMethod == null || paymentMethod.isBlank()) {
+            return null;
+        }
+        try {
+            return PaymentMethod.valueOf(paymentMethod.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOrderException("Invalid payment method: " + paymentMethod);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Ejecuta BCrypt en un pool propio y acotado para que los picos de login no ocupen los hilos de Tomcat
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final Executor continuationExecutor;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Qualifier("applicationTaskExecutor") Executor continuationExecutor,
+                                  @Value("${security.bcrypt.threads:0}") int threads,
+                                  @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.continuationExecutor = continuationExecutor;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", hashingExecutor, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", hashingExecutor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> timed(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> timed(encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    // true si el hash se generó con un coste menor al configurado actualmente
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Las continuaciones (escrituras en Mongo, token...) se ejecutan fuera de los hilos de hashing
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingExecutor)
+                    .thenApplyAsync(result -> result, continuationExecutor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new HashingCapacityExceededException();
+        }
+    }
+
+    private static <T> T timed(Timer timer, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+}
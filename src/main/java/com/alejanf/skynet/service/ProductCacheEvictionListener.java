@@ -0,0 +1,28 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictionListener extends AbstractMongoEventListener<Product> {
+
+    private final ProductCacheInvalidator productCacheInvalidator;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Product> event) {
+        productCacheInvalidator.onProductSaved(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Product> event) {
+        Object id = event.getSource().get("_id");
+        if (id != null) {
+            productCacheInvalidator.onProductDeleted(id.toString());
+        }
+    }
+}
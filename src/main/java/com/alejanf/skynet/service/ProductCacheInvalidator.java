@@ -0,0 +1,74 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.config.CacheConfig;
+import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    // Invalida la entrada solo si la versión cacheada es anterior a la guardada
+    public void onProductSaved(Product product) {
+        Cache products = cache(CacheConfig.PRODUCTS);
+        ProductDTO cached = products.get(product.getId(), ProductDTO.class);
+
+        if (cached == null || isStale(cached, product)) {
+            evictEntry(product.getId(), cached);
+            cache(CacheConfig.PRODUCT_SLUGS).evict(product.getSlug());
+        }
+        cache(CacheConfig.PRODUCT_PAGES).clear();
+        cache(CacheConfig.PRODUCT_SEARCH).clear();
+    }
+
+    // Para escrituras parciales (updates de Mongo) que no pasan por save(): solo las entradas del producto.
+    // Listados y búsquedas no se vacían aquí: stock y valoraciones cambian constantemente, vaciarlos en cada
+    // cambio dejaría su tasa de acierto a cero, y su TTL es corto.
+    public void invalidate(String productId) {
+        ProductDTO cached = cache(CacheConfig.PRODUCTS).get(productId, ProductDTO.class);
+        evictEntry(productId, cached);
+    }
+
+    // Un producto borrado no debe seguir apareciendo en los listados cacheados
+    public void onProductDeleted(String productId) {
+        invalidate(productId);
+        cache(CacheConfig.PRODUCT_PAGES).clear();
+        cache(CacheConfig.PRODUCT_SEARCH).clear();
+    }
+
+    // Tras escrituras masivas (importaciones) se vacía todo el catálogo cacheado
+    public void invalidateAll() {
+        cache(CacheConfig.PRODUCTS).clear();
+        cache(CacheConfig.PRODUCT_SLUGS).clear();
+        cache(CacheConfig.PRODUCT_PAGES).clear();
+        cache(CacheConfig.PRODUCT_SEARCH).clear();
+    }
+
+    private void evictEntry(String productId, ProductDTO cached) {
+        cache(CacheConfig.PRODUCTS).evict(productId);
+        if (cached != null && cached.getSlug() != null) {
+            cache(CacheConfig.PRODUCT_SLUGS).evict(cached.getSlug());
+        }
+    }
+
+    private boolean isStale(ProductDTO cached, Product saved) {
+        if (cached.getVersion() == null || saved.getVersion() == null) {
+            return true;
+        }
+        return cached.getVersion() < saved.getVersion();
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+}
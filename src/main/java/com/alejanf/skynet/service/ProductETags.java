@@ -0,0 +1,44 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.ProductVersionView;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// ETags fuertes derivados de @Version (o updatedAt en documentos antiguos sin versión)
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    public static String of(ProductVersionView product) {
+        return product.getId() + "-" + revision(product);
+    }
+
+    // ETag agregado de una página: cambia si cambia cualquier producto, el orden o el total.
+    // Se calcula sobre la misma página (cacheada) que se va a devolver, nunca sobre otra lectura.
+    public static String ofPage(Page<? extends ProductVersionView> page) {
+        StringBuilder raw = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getSort()).append(':')
+                .append(page.getTotalElements());
+        for (ProductVersionView product : page) {
+            raw.append(';').append(product.getId()).append('-').append(revision(product));
+        }
+        return DigestUtils.md5DigestAsHex(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long lastModified(ProductVersionView product) {
+        LocalDateTime updatedAt = product.getUpdatedAt();
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    private static String revision(ProductVersionView product) {
+        String revision = product.getVersion() != null ? "v" + product.getVersion() : "t" + lastModified(product);
+        return revision + "s" + product.getStockTotal();
+    }
+}
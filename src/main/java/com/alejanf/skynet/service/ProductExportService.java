@@ -0,0 +1,187 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.ProductExportCsvRow;
+import com.alejanf.skynet.dto.ProductExportDTO;
+import com.alejanf.skynet.model.Category;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Exporta el catálogo completo recorriendo un cursor de Mongo: en memoria solo hay un lote de productos a la vez
+@Slf4j
+@Service
+public class ProductExportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    public enum Format { JSONL, CSV }
+
+    private final MongoTemplate mongoTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema = csvMapper.schemaFor(ProductExportCsvRow.class).withHeader();
+    private final Counter exportedDocuments;
+    private final Timer exportTimer;
+
+    public ProductExportService(MongoTemplate mongoTemplate, CategoryRepository categoryRepository,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.exportedDocuments = Counter.builder("catalog.export.documents").register(meterRegistry);
+        this.exportTimer = Timer.builder("catalog.export").register(meterRegistry);
+    }
+
+    public long export(OutputStream out, Format format) throws IOException {
+        // Las categorías son pocas: se resuelven con un mapa en memoria
+        Map<String, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        long start = System.nanoTime();
+        long exported = 0;
+        Query cursorQuery = new Query().with(Sort.by("id")).cursorBatchSize(BATCH_SIZE);
+
+        try (SequenceWriter writer = sequenceWriter(out, format);
+             Stream<Product> products = mongoTemplate.stream(cursorQuery, Product.class)) {
+            List<Product> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE) {
+                    exported += writeBatch(batch, categories, writer, format);
+                    batch.clear();
+                }
+            }
+            exported += writeBatch(batch, categories, writer, format);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        exportTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        double seconds = Math.max(elapsedNanos / 1_000_000_000.0, 0.001);
+        log.info("Exported {} products as {} in {} ms ({} docs/s)",
+                exported, format, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(exported / seconds));
+        return exported;
+    }
+
+    // Las variantes de todo el lote se traen en una sola consulta $in
+    private int writeBatch(List<Product> batch, Map<String, Category> categories,
+                           SequenceWriter writer, Format format) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<String> productIds = batch.stream().map(Product::getId).toList();
+        Map<String, List<ProductVariant>> variantsByProduct = mongoTemplate
+                .find(query(where("productId").in(productIds)), ProductVariant.class).stream()
+                .collect(Collectors.groupingBy(ProductVariant::getProductId));
+
+        for (Product product : batch) {
+            Category category = categories.get(product.getCategoryId());
+            List<ProductVariant> variants = variantsByProduct.getOrDefault(product.getId(), List.of());
+            if (format == Format.JSONL) {
+                writer.write(toExportDTO(product, category, variants));
+            } else {
+                for (ProductExportCsvRow row : toCsvRows(product, category, variants)) {
+                    writer.write(row);
+                }
+            }
+        }
+        writer.flush();
+        exportedDocuments.increment(batch.size());
+        return batch.size();
+    }
+
+    // El generador no cierra el stream subyacente: de eso se encarga quien lo abrió (p. ej. el GZIP)
+    private SequenceWriter sequenceWriter(OutputStream out, Format format) throws IOException {
+        if (format == Format.CSV) {
+            JsonGenerator generator = csvMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return csvMapper.writer(csvSchema).writeValues(generator);
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return objectMapper.writer().withRootValueSeparator("\n").writeValues(generator);
+    }
+
+    private ProductExportDTO toExportDTO(Product product, Category category, List<ProductVariant> variants) {
+        ProductExportDTO dto = new ProductExportDTO();
+        dto.setId(product.getId());
+        dto.setSlug(product.getSlug());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setStockTotal(product.getStockTotal());
+        dto.setCategoryId(product.getCategoryId());
+        dto.setCategorySlug(category != null ? category.getSlug() : null);
+        dto.setCategoryName(category != null ? category.getName() : null);
+        dto.setImageUrl(product.getImageUrl());
+        dto.setTags(product.getTags());
+        dto.setRating(product.getRating());
+        dto.setRatingCount(product.getRatingCount());
+        dto.setActive(product.isActive());
+        dto.setUpdatedAt(product.getUpdatedAt());
+        dto.setVariants(variants.stream().map(ProductExportDTO.Variant::fromEntity).toList());
+        return dto;
+    }
+
+    private List<ProductExportCsvRow> toCsvRows(Product product, Category category, List<ProductVariant> variants) {
+        if (variants.isEmpty()) {
+            return List.of(toCsvRow(product, category, null));
+        }
+        return variants.stream().map(variant -> toCsvRow(product, category, variant)).toList();
+    }
+
+    private ProductExportCsvRow toCsvRow(Product product, Category category, ProductVariant variant) {
+        ProductExportCsvRow row = new ProductExportCsvRow();
+        row.setProductId(product.getId());
+        row.setSlug(product.getSlug());
+        row.setName(product.getName());
+        row.setDescription(product.getDescription());
+        row.setPrice(product.getPrice());
+        row.setStockTotal(product.getStockTotal());
+        row.setCategorySlug(category != null ? category.getSlug() : null);
+        row.setCategoryName(category != null ? category.getName() : null);
+        row.setImageUrl(product.getImageUrl());
+        row.setTags(product.getTags() != null ? String.join("|", product.getTags()) : null);
+        row.setRating(product.getRating());
+        row.setRatingCount(product.getRatingCount());
+        row.setActive(product.isActive());
+        if (variant != null) {
+            row.setVariantId(variant.getId());
+            row.setSku(variant.getSku());
+            row.setSize(variant.getSize());
+            row.setColor(variant.getColor());
+            row.setVariantPrice(variant.getPrice());
+            row.setVariantStock(variant.getStock());
+            row.setVariantImageUrl(variant.getImageUrl());
+        }
+        return row;
+    }
+}
@@ -0,0 +1,509 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.ImportReportDTO;
+import com.alejanf.skynet.dto.ProductExportCsvRow;
+import com.alejanf.skynet.dto.ProductImportRow;
+import com.alejanf.skynet.model.Category;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Importación masiva del catálogo: se lee el fichero en streaming y se escribe por lotes con bulk upserts
+// (clave natural: slug para productos, sku para variantes). En memoria solo hay un lote a la vez.
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_CONSECUTIVE_PARSE_ERRORS = 100;
+
+    public enum Format { JSONL, CSV }
+
+    private final MongoTemplate mongoTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final AutocompleteIndex autocompleteIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema = csvMapper.schemaFor(ProductExportCsvRow.class).withHeader();
+    private final Counter importedProducts;
+    private final Counter rejectedRows;
+
+    public ProductImportService(MongoTemplate mongoTemplate, CategoryRepository categoryRepository,
+                                ProductCacheInvalidator productCacheInvalidator, AutocompleteIndex autocompleteIndex,
+                                Validator validator,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryRepository = categoryRepository;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.autocompleteIndex = autocompleteIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.importedProducts = Counter.builder("catalog.import.products").register(meterRegistry);
+        this.rejectedRows = Counter.builder("catalog.import.rejected").register(meterRegistry);
+    }
+
+    public ImportReportDTO importProducts(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportReportDTO report = new ImportReportDTO();
+
+        // Las categorías se resuelven una sola vez por importación: slug -> id
+        Map<String, String> categoryIds = categoryRepository.findAll().stream()
+                .filter(category -> category.getSlug() != null)
+                .collect(Collectors.toMap(Category::getSlug, Category::getId, (first, second) -> first));
+
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Consumer<ParsedRow> sink = row -> {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, categoryIds, report);
+                chunk.clear();
+            }
+        };
+
+        try {
+            if (format == Format.CSV) {
+                readCsv(in, sink, report);
+            } else {
+                readJsonLines(in, sink, report);
+            }
+            processChunk(chunk, categoryIds, report);
+        } finally {
+            // Los bulk upserts no disparan eventos de ciclo de vida: se vacía la caché del catálogo a mano
+            productCacheInvalidator.invalidateAll();
+        }
+
+        // Los bulk upserts tampoco llegan al índice de autocompletado: se reconstruye una vez al final
+        if (report.getProductsUpserted() > 0) {
+            autocompleteIndex.rebuild();
+        }
+
+        report.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Imported {} products ({} variants) from {} rows in {} ms, {} rejected",
+                report.getProductsUpserted(), report.getVariantsUpserted(), report.getRowsProcessed(),
+                report.getElapsedMs(), report.getRowsFailed());
+        return report;
+    }
+
+    // Una línea = un producto con sus variantes; una línea mal formada no aborta el resto del fichero
+    private void readJsonLines(InputStream in, Consumer<ParsedRow> sink, ImportReportDTO report) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                sink.accept(new ParsedRow(lineNumber, objectMapper.readValue(line, ProductImportRow.class)));
+            } catch (JsonProcessingException e) {
+                report.setRowsProcessed(report.getRowsProcessed() + 1);
+                report.addError(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // Mismo formato que el export CSV: las filas consecutivas con el mismo slug son variantes del mismo producto
+    private void readCsv(InputStream in, Consumer<ParsedRow> sink, ImportReportDTO report) throws IOException {
+        MappingIterator<ProductExportCsvRow> rows = csvMapper.readerFor(ProductExportCsvRow.class)
+                .with(csvSchema)
+                .readValues(in);
+
+        ProductImportRow current = null;
+        long currentLine = 0;
+        int consecutiveErrors = 0;
+        while (true) {
+            ProductExportCsvRow csvRow;
+            try {
+                if (!rows.hasNextValue()) {
+                    break;
+                }
+                csvRow = rows.nextValue();
+                consecutiveErrors = 0;
+            } catch (IOException | RuntimeException e) {
+                report.setRowsProcessed(report.getRowsProcessed() + 1);
+                report.addError(rows.getCurrentLocation().getLineNr(), null, "Malformed CSV row: " + e.getMessage());
+                if (++consecutiveErrors >= MAX_CONSECUTIVE_PARSE_ERRORS) {
+                    report.addError(rows.getCurrentLocation().getLineNr(), null, "Too many consecutive parse errors, import aborted");
+                    break;
+                }
+                continue;
+            }
+
+            if (current == null || !Objects.equals(current.getSlug(), csvRow.getSlug())) {
+                if (current != null) {
+                    sink.accept(new ParsedRow(currentLine, current));
+                }
+                current = toImportRow(csvRow);
+                currentLine = rows.getCurrentLocation().getLineNr();
+            }
+            if (csvRow.getSku() != null && !csvRow.getSku().isBlank()) {
+                current.getVariants().add(toImportVariant(csvRow));
+            }
+        }
+        if (current != null) {
+            sink.accept(new ParsedRow(currentLine, current));
+        }
+    }
+
+    private void processChunk(List<ParsedRow> chunk, Map<String, String> categoryIds, ImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // La validación es pura CPU y cada fila es independiente: se reparte entre núcleos
+        List<ValidatedRow> validated = chunk.parallelStream()
+                .map(row -> validate(row, categoryIds))
+                .toList();
+
+        List<ValidatedRow> valid = new ArrayList<>(validated.size());
+        Set<String> slugs = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (ValidatedRow row : validated) {
+            report.setRowsProcessed(report.getRowsProcessed() + 1);
+            String slug = row.product().getSlug();
+            if (!row.errors().isEmpty()) {
+                reject(report, row, String.join("; ", row.errors()));
+            } else if (!slugs.add(slug)) {
+                reject(report, row, "Duplicate slug in the same batch: " + slug);
+            } else if (row.variants().stream().anyMatch(variant -> skus.contains(variant.getSku()))) {
+                slugs.remove(slug);
+                reject(report, row, "Duplicate sku in the same batch");
+            } else {
+                row.variants().forEach(variant -> skus.add(variant.getSku()));
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> productIds = upsertProducts(valid, report);
+        Set<String> previousOwners = upsertVariants(valid, productIds, report);
+        removeMissingVariants(valid, productIds, report);
+        reconcileProducts(valid, productIds, previousOwners, report);
+    }
+
+    // 1) Productos por slug. stockTotal y variantIds se rellenan en el paso 4, con lo que de verdad se haya escrito
+    private Map<String, String> upsertProducts(List<ValidatedRow> rows, ImportReportDTO report) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (ValidatedRow row : rows) {
+            Product product = row.product();
+            Update update = new Update()
+                    .set("name", product.getName())
+                    .set("nameKey", product.getNameKey())
+                    .set("description", product.getDescription())
+                    .set("price", new Decimal128(product.getPrice()))
+                    .set("categoryId", product.getCategoryId())
+                    .set("imageUrl", product.getImageUrl())
+                    .set("tags", product.getTags())
+                    .set("active", product.isActive())
+                    .set("updatedAt", now)
+                    .inc("version", 1) // Las ETags y la caché dependen de la versión
+                    .setOnInsert("rating", 0.0)
+                    .setOnInsert("ratingCount", 0)
+                    .setOnInsert("ratingSum", 0L)
+                    .setOnInsert("variantIds", List.of())
+                    .setOnInsert("stockTotal", 0)
+                    .setOnInsert("createdAt", now);
+            ops.upsert(query(where("slug").is(product.getSlug())), update);
+        }
+        executeBulk(ops, rows, report);
+
+        Query idQuery = query(where("slug").in(rows.stream().map(row -> row.product().getSlug()).toList()));
+        idQuery.fields().include("slug");
+        Map<String, String> productIds = new HashMap<>();
+        for (Product product : mongoTemplate.find(idQuery, Product.class)) {
+            productIds.put(product.getSlug(), product.getId());
+        }
+        report.setProductsUpserted(report.getProductsUpserted() + productIds.size());
+        importedProducts.increment(productIds.size());
+        return productIds;
+    }
+
+    // 2) Variantes por sku, ya apuntando al id definitivo del producto. El stock se aplica como diferencia
+    // con el leído justo antes, así no se pisan los $inc de pedidos y reservas que lleguen entretanto.
+    // Devuelve los productos que tenían alguno de estos skus y lo han perdido.
+    private Set<String> upsertVariants(List<ValidatedRow> rows, Map<String, String> productIds,
+                                       ImportReportDTO report) {
+        List<ProductVariant> variants = new ArrayList<>();
+        List<ValidatedRow> owners = new ArrayList<>(); // Fila de origen de cada operación, para el informe
+        for (ValidatedRow row : rows) {
+            String productId = productIds.get(row.product().getSlug());
+            if (productId == null) {
+                continue;
+            }
+            for (ProductVariant variant : row.variants()) {
+                variant.setProductId(productId);
+                variants.add(variant);
+                owners.add(row);
+            }
+        }
+        if (variants.isEmpty()) {
+            return Set.of();
+        }
+
+        Query currentQuery = query(where("sku").in(variants.stream().map(ProductVariant::getSku).toList()));
+        currentQuery.fields().include("sku", "productId", "stock");
+        Map<String, ProductVariant> current = new HashMap<>();
+        for (ProductVariant variant : mongoTemplate.find(currentQuery, ProductVariant.class)) {
+            current.put(variant.getSku(), variant);
+        }
+
+        Set<String> previousOwners = new HashSet<>();
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductVariant.class);
+        for (ProductVariant variant : variants) {
+            Update update = new Update()
+                    .set("productId", variant.getProductId())
+                    .set("size", variant.getSize())
+                    .set("color", variant.getColor())
+                    .set("price", variant.getPrice())
+                    .set("imageUrl", variant.getImageUrl());
+            ProductVariant existing = current.get(variant.getSku());
+            if (existing == null) {
+                update.set("stock", variant.getStock());
+            } else {
+                int delta = variant.getStock() - (existing.getStock() != null ? existing.getStock() : 0);
+                if (delta != 0) {
+                    update.inc("stock", delta);
+                }
+                if (existing.getProductId() != null && !existing.getProductId().equals(variant.getProductId())) {
+                    previousOwners.add(existing.getProductId());
+                }
+            }
+            ops.upsert(query(where("sku").is(variant.getSku())), update);
+        }
+        int failed = executeBulk(ops, owners, report);
+        report.setVariantsUpserted(report.getVariantsUpserted() + variants.size() - failed);
+        return previousOwners;
+    }
+
+    // 3) La fila es la lista completa de variantes del producto: las que ya no aparecen se borran
+    // para que no se puedan seguir pidiendo
+    private void removeMissingVariants(List<ValidatedRow> rows, Map<String, String> productIds, ImportReportDTO report) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductVariant.class);
+        List<ValidatedRow> owners = new ArrayList<>();
+        for (ValidatedRow row : rows) {
+            String productId = productIds.get(row.product().getSlug());
+            if (productId == null) {
+                continue;
+            }
+            List<String> skus = row.variants().stream().map(ProductVariant::getSku).toList();
+            ops.remove(query(where("productId").is(productId).and("sku").nin(skus)));
+            owners.add(row);
+        }
+        if (owners.isEmpty()) {
+            return;
+        }
+        try {
+            report.setVariantsRemoved(report.getVariantsRemoved() + ops.execute().getDeletedCount());
+        } catch (BulkOperationException e) {
+            report.setVariantsRemoved(report.getVariantsRemoved() + e.getResult().getDeletedCount());
+            e.getErrors().forEach(error -> reject(report, owners.get(error.getIndex()), error.getMessage()));
+        }
+    }
+
+    // 4) variantIds y stockTotal se calculan con las variantes que han quedado en Mongo: una variante cuyo
+    // upsert ha fallado no cuenta, y los productos que han perdido un sku movido a otro también se recalculan
+    private void reconcileProducts(List<ValidatedRow> rows, Map<String, String> productIds,
+                                   Set<String> previousOwners, ImportReportDTO report) {
+        Map<String, ValidatedRow> rowsByProduct = new HashMap<>();
+        for (ValidatedRow row : rows) {
+            String productId = productIds.get(row.product().getSlug());
+            if (productId != null) {
+                rowsByProduct.put(productId, row);
+            }
+        }
+        Set<String> affected = new HashSet<>(rowsByProduct.keySet());
+        affected.addAll(previousOwners);
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        Query variantQuery = query(where("productId").in(affected));
+        variantQuery.fields().include("productId", "sku", "stock");
+        Map<String, List<ProductVariant>> variantsByProduct = mongoTemplate.find(variantQuery, ProductVariant.class)
+                .stream()
+                .collect(Collectors.groupingBy(ProductVariant::getProductId));
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        List<ValidatedRow> owners = new ArrayList<>(); // null para los productos que no vienen en el lote
+        for (String productId : affected) {
+            List<ProductVariant> variants = new ArrayList<>(variantsByProduct.getOrDefault(productId, List.of()));
+            ValidatedRow row = rowsByProduct.get(productId);
+            if (row != null) {
+                // Mismo orden que en la fila
+                List<String> skus = row.variants().stream().map(ProductVariant::getSku).toList();
+                variants.sort(Comparator.comparingInt(variant -> skus.indexOf(variant.getSku())));
+            }
+            List<String> ids = variants.stream().map(ProductVariant::getId).toList();
+            int stockTotal = variants.stream()
+                    .mapToInt(variant -> variant.getStock() != null ? variant.getStock() : 0)
+                    .sum();
+            ops.updateOne(query(where("_id").is(productId)),
+                    new Update().set("variantIds", ids).set("stockTotal", stockTotal));
+            owners.add(row);
+        }
+        executeBulk(ops, owners, report);
+    }
+
+    // Devuelve cuántas operaciones han fallado
+    private int executeBulk(BulkOperations ops, List<ValidatedRow> rows, ImportReportDTO report) {
+        try {
+            ops.execute();
+            return 0;
+        } catch (BulkOperationException e) {
+            // Modo no ordenado: el resto del lote se ha escrito, solo se informan las filas fallidas
+            e.getErrors().forEach(error -> {
+                ValidatedRow row = rows.get(error.getIndex());
+                if (row != null) {
+                    reject(report, row, error.getMessage());
+                } else {
+                    log.warn("Import bulk write failed outside the imported rows: {}", error.getMessage());
+                }
+            });
+            return e.getErrors().size();
+        }
+    }
+
+    private ValidatedRow validate(ParsedRow parsed, Map<String, String> categoryIds) {
+        ProductImportRow row = parsed.row();
+        List<String> errors = new ArrayList<>();
+
+        Product product = new Product();
+        product.setSlug(row.getSlug());
+        product.setName(row.getName());
+        product.setDescription(row.getDescription());
+        product.setPrice(row.getPrice());
+        product.setImageUrl(row.getImageUrl());
+        product.setTags(row.getTags() != null ? new HashSet<>(row.getTags()) : new HashSet<>());
+        product.setActive(row.getActive() == null || row.getActive());
+
+        String categoryId = row.getCategorySlug() != null ? categoryIds.get(row.getCategorySlug()) : null;
+        if (categoryId == null) {
+            errors.add("Unknown category: " + row.getCategorySlug());
+        }
+        product.setCategoryId(categoryId);
+
+        List<ProductVariant> variants = new ArrayList<>();
+        Set<String> rowSkus = new HashSet<>();
+        int stockTotal = 0;
+        if (row.getVariants() != null) {
+            for (ProductImportRow.Variant source : row.getVariants()) {
+                ProductVariant variant = new ProductVariant();
+                variant.setSku(source.getSku());
+                variant.setSize(source.getSize());
+                variant.setColor(source.getColor());
+                variant.setPrice(source.getPrice());
+                variant.setStock(source.getStock());
+                variant.setImageUrl(source.getImageUrl());
+                variant.setProductId(row.getSlug()); // Provisional: el id real se conoce tras el upsert del producto
+
+                if (source.getSku() == null || source.getSku().isBlank()) {
+                    errors.add("Variant without sku");
+                } else if (!rowSkus.add(source.getSku())) {
+                    errors.add("Duplicate sku: " + source.getSku());
+                }
+                collect(validator.validate(variant), "variant " + source.getSku() + ".", errors);
+                if (source.getStock() != null) {
+                    stockTotal += source.getStock();
+                }
+                variants.add(variant);
+            }
+        }
+        product.setStockTotal(stockTotal);
+
+        for (ConstraintViolation<Product> violation : validator.validate(product)) {
+            // La categoría desconocida ya se ha informado con un mensaje más claro
+            if (!"categoryId".equals(violation.getPropertyPath().toString())) {
+                errors.add(violation.getPropertyPath() + " " + violation.getMessage());
+            }
+        }
+        return new ValidatedRow(parsed.line(), product, variants, errors);
+    }
+
+    private static <T> void collect(Collection<ConstraintViolation<T>> violations, String prefix, List<String> errors) {
+        violations.forEach(violation -> errors.add(prefix + violation.getPropertyPath() + " " + violation.getMessage()));
+    }
+
+    private void reject(ImportReportDTO report, ValidatedRow row, String message) {
+        rejectedRows.increment();
+        report.addError(row.line(), row.product().getSlug(), message);
+    }
+
+    private static ProductImportRow toImportRow(ProductExportCsvRow csvRow) {
+        ProductImportRow row = new ProductImportRow();
+        row.setSlug(csvRow.getSlug());
+        row.setName(csvRow.getName());
+        row.setDescription(csvRow.getDescription());
+        row.setPrice(csvRow.getPrice());
+        row.setCategorySlug(csvRow.getCategorySlug());
+        row.setImageUrl(csvRow.getImageUrl());
+        row.setActive(csvRow.isActive());
+        if (csvRow.getTags() != null && !csvRow.getTags().isBlank()) {
+            row.setTags(new LinkedHashSet<>(Arrays.asList(csvRow.getTags().split("\\|"))));
+        }
+        return row;
+    }
+
+    private static ProductImportRow.Variant toImportVariant(ProductExportCsvRow csvRow) {
+        ProductImportRow.Variant variant = new ProductImportRow.Variant();
+        variant.setSku(csvRow.getSku());
+        variant.setSize(csvRow.getSize());
+        variant.setColor(csvRow.getColor());
+        variant.setPrice(csvRow.getVariantPrice());
+        variant.setStock(csvRow.getVariantStock());
+        variant.setImageUrl(csvRow.getVariantImageUrl());
+        return variant;
+    }
+
+    private record ParsedRow(long line, ProductImportRow row) {
+    }
+
+    private record ValidatedRow(long line, Product product, List<ProductVariant> variants, List<String> errors) {
+    }
+}
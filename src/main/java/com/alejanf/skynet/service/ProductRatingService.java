@@ -0,0 +1,71 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Media de valoraciones mantenida en Mongo: suma y contador se incrementan y la media se recalcula
+// en el mismo update (pipeline), sin leer el producto ni competir con su @Version
+@Service
+@RequiredArgsConstructor
+public class ProductRatingService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final AutocompleteIndex autocompleteIndex;
+
+    // sum y count pueden agrupar varias reseñas (buffer de escritura diferida)
+    public void addRatings(String productId, long sum, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Query byId = query(where("_id").is(productId));
+        byId.fields().include("rating", "ratingCount");
+
+        // Sobre la colección y no sobre la entidad: así MongoTemplate no añade su propio $inc de version
+        Document updated = mongoTemplate.findAndModify(byId, ratingUpdate(sum, count),
+                FindAndModifyOptions.options().returnNew(true), Document.class,
+                mongoTemplate.getCollectionName(Product.class));
+        if (updated == null) {
+            return;
+        }
+
+        productCacheInvalidator.invalidate(productId);
+        Number rating = updated.get("rating", Number.class);
+        Number ratingCount = updated.get("ratingCount", Number.class);
+        if (rating != null && ratingCount != null) {
+            autocompleteIndex.updateRating(productId, rating.doubleValue(), ratingCount.intValue());
+        }
+    }
+
+    private AggregationUpdate ratingUpdate(long sum, int count) {
+        // Primera etapa: incrementos (los documentos antiguos no tienen ratingSum); segunda: la media
+        Document increments = new Document("ratingSum", add("$ratingSum", sum))
+                .append("ratingCount", add("$ratingCount", count))
+                .append("version", add("$version", 1))
+                .append("updatedAt", new Date()); // Etapa en crudo: se pasa ya como fecha BSON
+        Document average = new Document("rating", new Document("$divide", List.of("$ratingSum", "$ratingCount")));
+
+        return AggregationUpdate.from(List.of(stage(increments), stage(average)));
+    }
+
+    private static Document add(String field, long value) {
+        return new Document("$add", List.of(new Document("$ifNull", List.of(field, 0)), value));
+    }
+
+    private static AggregationOperation stage(Document set) {
+        return context -> new Document("$set", set);
+    }
+}
@@ -0,0 +1,74 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.ProductSearchCriteria;
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Filtrado y ordenación en servidor. Cada combinación de filtros tiene un índice en Product que la cubre:
+// categoría o tag como prefijo de igualdad, luego active, y la clave de ordenación o el rango.
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public Page<ProductSummaryDTO> search(ProductSearchCriteria criteria, ProductSortKey sortKey,
+                                          Sort.Direction direction, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        Query query = buildQuery(criteria, sortKey, direction).with(pageable);
+
+        List<ProductSummaryDTO> items = mongoTemplate.query(Product.class)
+                .as(ProductSummaryDTO.class)
+                .matching(query)
+                .all();
+
+        // El count solo se lanza si la página no basta para deducir el total
+        return PageableExecutionUtils.getPage(items, pageable,
+                () -> mongoTemplate.count(Query.of(query).skip(-1).limit(-1), Product.class));
+    }
+
+    public Query buildQuery(ProductSearchCriteria filters, ProductSortKey sortKey, Sort.Direction direction) {
+        Criteria criteria = new Criteria();
+
+        if (filters.getCategoryId() != null && !filters.getCategoryId().isBlank()) {
+            criteria.and("categoryId").is(filters.getCategoryId());
+        }
+        if (filters.getTags() != null && !filters.getTags().isEmpty()) {
+            criteria.and("tags").all(filters.getTags());
+        }
+        if (filters.getActive() != null) {
+            criteria.and("active").is(filters.getActive());
+        }
+        if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+            // price se guarda como Decimal128: se compara con el mismo tipo para que el rango use el índice
+            Criteria price = criteria.and("price");
+            if (filters.getMinPrice() != null) {
+                price.gte(new Decimal128(filters.getMinPrice()));
+            }
+            if (filters.getMaxPrice() != null) {
+                price.lte(new Decimal128(filters.getMaxPrice()));
+            }
+        }
+        if (filters.getMinRating() != null) {
+            criteria.and("rating").gte(filters.getMinRating());
+        }
+        if (Boolean.TRUE.equals(filters.getInStock())) {
+            criteria.and("stockTotal").gt(0);
+        }
+
+        // _id desempata: rating vale 0.0 en la mayoría de productos y sin él las páginas repiten o saltan elementos
+        return new Query(criteria).with(Sort.by(direction, sortKey.getField(), "_id"));
+    }
+}
@@ -1,20 +1,132 @@
 package com.alejanf.skynet.service;
 
+import com.alejanf.skynet.config.CacheConfig;
+import com.alejanf.skynet.dto.CursorPageDTO;
 import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.dto.ProductVersionView;
+import com.alejanf.skynet.model.Product;
 import com.alejanf.skynet.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final ProductCacheInvalidator productCacheInvalidator;
     
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "'full:' + #pageable")
     public Page<ProductDTO> getAllProducts(@NonNull Pageable pageable) {
         return productRepository.findAll(pageable).map(ProductDTO::fromEntity);
     }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "'summary:' + #pageable")
+    public Page<ProductSummaryDTO> getProductSummaries(@NonNull Pageable pageable) {
+        return productRepository.findAllBy(pageable);
+    }
+
+    // Lectura a través de la caché; las entradas se invalidan desde ProductCacheInvalidator
+    public ProductDTO getProductById(String id) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        ProductDTO cached = products.get(id, ProductDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+        ProductDTO product = productRepository.findById(id).map(ProductDTO::fromEntity).orElse(null);
+        if (product != null) {
+            products.put(id, product);
+        }
+        return product;
+    }
+
+    public ProductDTO getProductBySlug(String slug) {
+        Cache slugs = cacheManager.getCache(CacheConfig.PRODUCT_SLUGS);
+        String id = slugs.get(slug, String.class);
+        if (id != null) {
+            return getProductById(id);
+        }
+        ProductDTO product = productRepository.findBySlug(slug).map(ProductDTO::fromEntity).orElse(null);
+        if (product != null) {
+            slugs.put(slug, product.getId());
+            cacheManager.getCache(CacheConfig.PRODUCTS).put(product.getId(), product);
+        }
+        return product;
+    }
+
+    // Devuelve el producto garantizando que coincide con la versión (y el stock) actuales en Mongo
+    public ProductDTO getProductBySlug(String slug, ProductVersionView current) {
+        ProductDTO product = getProductBySlug(slug);
+        if (product != null && isOutdated(product, current)) {
+            // Entrada obsoleta (p. ej. escrita desde otra instancia): se invalida y se recarga
+            productCacheInvalidator.invalidate(product.getId());
+            product = getProductBySlug(slug);
+        }
+        return product;
+    }
+
+    private static boolean isOutdated(ProductDTO cached, ProductVersionView current) {
+        if (current.getVersion() != null && !current.getVersion().equals(cached.getVersion())) {
+            return true;
+        }
+        return !Objects.equals(current.getStockTotal(), cached.getStockTotal());
+    }
+
+    public ProductVersionView getProductVersion(String slug) {
+        return productRepository.findVersionBySlug(slug).orElse(null);
+    }
+
+    // Paginación keyset: busca a partir del último (valor, _id) visto, sin skip ni count
+    public CursorPageDTO<ProductDTO> getProductsByCursor(ProductSortKey sortKey, Sort.Direction direction,
+                                                         int size, String cursor) {
+        String field = sortKey.getField();
+        Query query = new Query();
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor);
+            if (!sortKey.name().equals(parts[0])) {
+                throw new IllegalArgumentException("Cursor does not match sort field");
+            }
+            Object lastValue = sortKey.parse(parts[1]);
+            String lastId = parts[2];
+
+            Criteria after = direction.isAscending()
+                    ? Criteria.where(field).gt(lastValue)
+                    : Criteria.where(field).lt(lastValue);
+            Criteria tieBreak = direction.isAscending()
+                    ? Criteria.where(field).is(lastValue).and("id").gt(lastId)
+                    : Criteria.where(field).is(lastValue).and("id").lt(lastId);
+            query.addCriteria(new Criteria().orOperator(after, tieBreak));
+        }
+
+        // Pedimos uno de más para saber si existe una página siguiente
+        query.with(Sort.by(direction, field, "id")).limit(size + 1);
+        List<Product> products = mongoTemplate.find(query, Product.class);
+
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            Product last = products.get(size - 1);
+            nextCursor = CursorCodec.encode(sortKey.name(), sortKey.valueOf(last), last.getId());
+        }
+
+        List<ProductDTO> items = products.stream().map(ProductDTO::fromEntity).toList();
+        return new CursorPageDTO<>(items, nextCursor);
+    }
 }
@@ -0,0 +1,82 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Product;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+// Claves de ordenación soportadas por el listado por cursor, cada una respaldada por un índice {campo, _id}
+public enum ProductSortKey {
+
+    CREATED_AT("createdAt") {
+        @Override
+        String valueOf(Product product) {
+            // Documentos antiguos sin createdAt: ProductFieldsMigration lo rellena con la fecha del ObjectId
+            LocalDateTime createdAt = product.getCreatedAt();
+            if (createdAt == null) {
+                createdAt = LocalDateTime.ofInstant(new ObjectId(product.getId()).getDate().toInstant(), ZoneId.systemDefault());
+            }
+            return createdAt.toString();
+        }
+
+        @Override
+        Object parse(String value) {
+            // DateTimeParseException no es IllegalArgumentException (las otras claves sí lanzan una al parsear)
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    },
+    PRICE("price") {
+        @Override
+        String valueOf(Product product) {
+            return product.getPrice().toPlainString();
+        }
+
+        @Override
+        Object parse(String value) {
+            return new Decimal128(new BigDecimal(value));
+        }
+    },
+    RATING("rating") {
+        @Override
+        String valueOf(Product product) {
+            return product.getRating() != null ? product.getRating().toString() : "0.0";
+        }
+
+        @Override
+        Object parse(String value) {
+            return Double.valueOf(value);
+        }
+    };
+
+    private final String field;
+
+    ProductSortKey(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    abstract String valueOf(Product product);
+
+    abstract Object parse(String value);
+
+    public static ProductSortKey from(String field) {
+        for (ProductSortKey key : values()) {
+            if (key.field.equalsIgnoreCase(field)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + field.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,22 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.ProductDTO;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.repository.ReactiveProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+@Service
+@RequiredArgsConstructor
+public class ProductStreamService {
+
+    private final ReactiveProductRepository reactiveProductRepository;
+
+    public Flux<ProductDTO> streamProducts(boolean active, String categoryId) {
+        Flux<Product> products = categoryId != null
+                ? reactiveProductRepository.findByActiveAndCategoryId(active, categoryId)
+                : reactiveProductRepository.findByActive(active);
+        return products.map(ProductDTO::fromEntity);
+    }
+}
@@ -0,0 +1,122 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.config.CacheConfig;
+import com.alejanf.skynet.dto.ProductSummaryDTO;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.SearchText;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Búsqueda de texto sobre el índice de texto de Product (pesos: name 10, tags 5, description 1)
+// y sugerencias por prefijo sobre nameKey. Los resultados de las consultas frecuentes se cachean.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductTextSearchService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final String[] SUMMARY_FIELDS = {"name", "price", "imageUrl", "rating", "slug", "stockTotal", "version", "updatedAt"};
+
+    private final MongoTemplate mongoTemplate;
+
+    // Resultados ordenados por relevancia ($meta textScore) y, a igualdad, por valoración
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_SEARCH, key = "'text:' + #text + ':' + #limit")
+    public List<ProductSummaryDTO> search(String text, int limit) {
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore();
+        query.addCriteria(where("active").is(true));
+        query.with(Sort.by(Sort.Direction.DESC, "rating")).limit(limit);
+        query.fields().include(SUMMARY_FIELDS);
+
+        return mongoTemplate.query(Product.class)
+                .as(ProductSummaryDTO.class)
+                .matching(query)
+                .all();
+    }
+
+    // Typeahead: prefijo anclado sobre el nombre normalizado, así el rango del índice de nameKey es exacto
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_SEARCH, key = "'prefix:' + #prefix + ':' + #limit")
+    public List<ProductSummaryDTO> suggest(String prefix, int limit) {
+        String key = SearchText.normalize(prefix);
+        Query query = query(where("nameKey").regex("^" + escapeRegex(key)).and("active").is(true))
+                .with(Sort.by(Sort.Direction.DESC, "rating"))
+                .limit(limit);
+        query.fields().include(SUMMARY_FIELDS);
+
+        return mongoTemplate.query(Product.class)
+                .as(ProductSummaryDTO.class)
+                .matching(query)
+                .all();
+    }
+
+    // Productos anteriores a nameKey: se rellena una vez al arrancar, por lotes
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNameKeys() {
+        Query missing = query(where("nameKey").exists(false)).cursorBatchSize(BACKFILL_BATCH_SIZE);
+        missing.fields().include("name");
+
+        long updated = 0;
+        try (Stream<Product> products = mongoTemplate.stream(missing, Product.class)) {
+            List<Product> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    updated += writeNameKeys(batch);
+                    batch.clear();
+                }
+            }
+            updated += writeNameKeys(batch);
+        } catch (RuntimeException e) {
+            // Igual que los índices: no se bloquea el arranque si Mongo no está disponible
+            log.warn("Could not backfill product name keys: {}", e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            log.info("Backfilled nameKey on {} products", updated);
+        }
+    }
+
+    private int writeNameKeys(List<Product> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Product product : batch) {
+            ops.updateOne(query(where("_id").is(product.getId())),
+                    new Update().set("nameKey", SearchText.normalize(product.getName())));
+        }
+        ops.execute();
+        return batch.size();
+    }
+
+    private static String escapeRegex(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.exception.InsufficientStockException;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderProduct;
+import com.alejanf.skynet.model.OrderStatus;
+import com.alejanf.skynet.model.Reservation;
+import com.alejanf.skynet.model.ReservationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Libro de retenciones de stock. Todas las transiciones son updates condicionados al estado actual,
+// así con varias instancias solo una gana cada transición y el stock se devuelve una única vez.
+// Si el proceso cae entre el $inc de stock y el cambio de estado, el fallo es siempre por defecto
+// (stock retenido de más), nunca una sobreventa.
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final StockService stockService;
+    private final Clock clock;
+    private final Duration retention;
+    private final Duration orphanGrace;
+
+    public ReservationService(MongoTemplate mongoTemplate, StockService stockService, Clock clock,
+                              @Value("${skynet.reservations.retention:P7D}") Duration retention,
+                              @Value("${skynet.reservations.orphan-grace:PT1M}") Duration orphanGrace) {
+        this.mongoTemplate = mongoTemplate;
+        this.stockService = stockService;
+        this.clock = clock;
+        this.retention = retention;
+        this.orphanGrace = orphanGrace;
+    }
+
+    // Descuenta el stock de cada línea y registra la retención; si una línea no cabe se deshace lo anterior
+    public List<Reservation> reserve(String orderId, String userId, List<OrderProduct> lines, LocalDateTime expiresAt) {
+        List<Reservation> held = new ArrayList<>();
+        for (OrderProduct line : lines) {
+            if (!stockService.decrement(line.getVariantId(), line.getProductId(), line.getQuantity())) {
+                held.forEach(reservation -> release(reservation.getId()));
+                throw new InsufficientStockException(line.getVariantId());
+            }
+            try {
+                held.add(mongoTemplate.insert(newReservation(orderId, userId, line, expiresAt)));
+            } catch (RuntimeException e) {
+                stockService.increment(line.getVariantId(), line.getProductId(), line.getQuantity());
+                held.forEach(reservation -> release(reservation.getId()));
+                throw e;
+            }
+        }
+        return held;
+    }
+
+    // Solo quien gana la transición HELD -> RELEASED devuelve el stock
+    public boolean release(String reservationId) {
+        Reservation released = mongoTemplate.findAndModify(
+                query(where("_id").is(reservationId).and("status").is(ReservationStatus.HELD)),
+                close(ReservationStatus.RELEASED),
+                Reservation.class);
+        if (released == null) {
+            return false;
+        }
+        stockService.increment(released.getVariantId(), released.getProductId(), released.getQuantity());
+        return true;
+    }
+
+    public int releaseOrder(String orderId) {
+        int released = 0;
+        for (Reservation reservation : heldReservations(query(where("orderId").is(orderId)))) {
+            if (release(reservation.getId())) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    // Pago confirmado: el stock descontado pasa a ser definitivo
+    public long commitOrder(String orderId) {
+        return mongoTemplate.updateMulti(
+                query(where("orderId").is(orderId).and("status").is(ReservationStatus.HELD)),
+                close(ReservationStatus.COMMITTED),
+                Reservation.class).getModifiedCount();
+    }
+
+    // Retenciones caducadas cuyo pedido no existe o ya está cerrado (p. ej. el proceso cayó antes de
+    // guardar el pedido). Las de pedidos PENDING las resuelve OrderService al cancelar el pedido.
+    public int resolveOrphans(int batchSize) {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(orphanGrace);
+        Query expired = query(where("status").is(ReservationStatus.HELD).and("expiresAt").lt(cutoff)).limit(batchSize);
+
+        int resolved = 0;
+        for (Reservation reservation : mongoTemplate.find(expired, Reservation.class)) {
+            Query orderQuery = query(where("_id").is(reservation.getOrderId()));
+            orderQuery.fields().include("status");
+            Order order = mongoTemplate.findOne(orderQuery, Order.class);
+
+            if (order == null || order.getStatus() == OrderStatus.CANCELLED) {
+                if (release(reservation.getId())) {
+                    resolved++;
+                }
+            } else if (order.getStatus() != OrderStatus.PENDING) {
+                // Pagado, pero la confirmación de las retenciones no llegó a escribirse
+                resolved += (int) commitOrder(reservation.getOrderId());
+            }
+        }
+        return resolved;
+    }
+
+    private List<Reservation> heldReservations(Query query) {
+        query.addCriteria(where("status").is(ReservationStatus.HELD));
+        return mongoTemplate.find(query, Reservation.class);
+    }
+
+    private Update close(ReservationStatus status) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return new Update()
+                .set("status", status)
+                .set("updatedAt", now)
+                .set("purgeAt", now.plus(retention));
+    }
+
+    private Reservation newReservation(String orderId, String userId, OrderProduct line, LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Reservation reservation = new Reservation();
+        reservation.setOrderId(orderId);
+        reservation.setUserId(userId);
+        reservation.setProductId(line.getProductId());
+        reservation.setVariantId(line.getVariantId());
+        reservation.setQuantity(line.getQuantity());
+        reservation.setStatus(ReservationStatus.HELD);
+        reservation.setExpiresAt(expiresAt);
+        reservation.setCreatedAt(now);
+        reservation.setUpdatedAt(now);
+        return reservation;
+    }
+}
@@ -0,0 +1,34 @@
+package com.alejanf.skynet.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Devuelve al stock las retenciones caducadas. Puede correr en todas las instancias a la vez:
+// cada pedido y cada retención cambian de estado con un update condicional.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationSweeper {
+
+    private final OrderService orderService;
+    private final ReservationService reservationService;
+
+    @Value("${skynet.reservations.sweep.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${skynet.reservations.sweep.interval-ms:30000}")
+    public void sweep() {
+        try {
+            int cancelled = orderService.expirePendingOrders(batchSize);
+            int orphans = reservationService.resolveOrphans(batchSize);
+            if (cancelled > 0 || orphans > 0) {
+                log.info("Reservation sweep: {} expired orders cancelled, {} orphan reservations resolved", cancelled, orphans);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reservation sweep failed: {}", e.getMessage());
+        }
+    }
+}
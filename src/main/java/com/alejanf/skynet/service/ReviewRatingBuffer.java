@@ -0,0 +1,61 @@
+package com.alejanf.skynet.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Escritura diferida opcional: agrupa las reseñas de un mismo producto y las aplica en un único update.
+// También recoge las valoraciones cuyo update directo falló, para reintentarlas en el siguiente volcado.
+// Si la instancia cae antes del volcado, las reseñas siguen guardadas pero la media queda atrasada.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewRatingBuffer {
+
+    private final ProductRatingService productRatingService;
+
+    private final Map<String, RatingDelta> pending = new ConcurrentHashMap<>();
+
+    public void add(String productId, int rating) {
+        pending.merge(productId, new RatingDelta(rating, 1), RatingDelta::plus);
+    }
+
+    @Scheduled(fixedDelayString = "${skynet.reviews.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        for (String productId : pending.keySet()) {
+            // remove es atómico: lo que llegue después se acumula en una entrada nueva
+            RatingDelta delta = pending.remove(productId);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                productRatingService.addRatings(productId, delta.sum(), delta.count());
+            } catch (RuntimeException e) {
+                // Se devuelve al buffer para el siguiente volcado
+                pending.merge(productId, delta, RatingDelta::plus);
+                log.warn("Could not flush {} ratings for product {}: {}", delta.count(), productId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    public int pendingProducts() {
+        return pending.size();
+    }
+
+    private record RatingDelta(long sum, int count) {
+
+        RatingDelta plus(RatingDelta other) {
+            return new RatingDelta(sum + other.sum, count + other.count);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.dto.CreateReviewDTO;
+import com.alejanf.skynet.dto.ReviewDTO;
+import com.alejanf.skynet.exception.DuplicateReviewException;
+import com.alejanf.skynet.exception.ProductNotFoundException;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.Review;
+import com.alejanf.skynet.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewService {
+
+    private final ReviewRepository reviewRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ProductRatingService productRatingService;
+    private final ReviewRatingBuffer reviewRatingBuffer;
+
+    @Value("${skynet.reviews.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    public ReviewDTO submitReview(String userId, CreateReviewDTO request) {
+        boolean productExists = mongoTemplate.exists(
+                query(where("_id").is(request.getProductId()).and("active").is(true)), Product.class);
+        if (!productExists) {
+            throw new ProductNotFoundException(request.getProductId());
+        }
+
+        Review review = new Review();
+        review.setProductId(request.getProductId());
+        review.setUserId(userId);
+        review.setRating(request.getRating());
+        review.setComment(request.getComment());
+
+        try {
+            // El índice único (productId, userId) impide contar dos veces la misma reseña
+            review = reviewRepository.insert(review);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateReviewException(request.getProductId());
+        }
+
+        if (writeBehind) {
+            reviewRatingBuffer.add(review.getProductId(), review.getRating());
+        } else {
+            try {
+                productRatingService.addRatings(review.getProductId(), review.getRating(), 1);
+            } catch (RuntimeException e) {
+                // La reseña ya está guardada: la valoración pasa al buffer, que la reintenta en cada volcado
+                reviewRatingBuffer.add(review.getProductId(), review.getRating());
+                log.warn("Rating update for product {} failed, deferred to the buffer: {}",
+                        review.getProductId(), e.getMessage());
+            }
+        }
+        return ReviewDTO.fromEntity(review);
+    }
+
+    public Page<ReviewDTO> getProductReviews(String productId, Pageable pageable) {
+        return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, pageable).map(ReviewDTO::fromEntity);
+    }
+}
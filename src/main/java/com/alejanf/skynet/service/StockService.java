@@ -0,0 +1,56 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Ajustes de stock atómicos: nunca se lee, modifica y guarda el documento completo
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCacheInvalidator productCacheInvalidator;
+
+    // Descuenta 'quantity' solo si queda stock suficiente; devuelve false si no lo hay
+    public boolean decrement(String variantId, String productId, int quantity) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                query(where("id").is(variantId).and("stock").gte(quantity)),
+                new Update().inc("stock", -quantity),
+                ProductVariant.class);
+
+        if (result.getModifiedCount() == 0) {
+            return false;
+        }
+        adjustStockTotal(productId, -quantity);
+        return true;
+    }
+
+    public void increment(String variantId, String productId, int quantity) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                query(where("id").is(variantId)),
+                new Update().inc("stock", quantity),
+                ProductVariant.class);
+        // La variante puede haberse borrado (p. ej. en una importación): su stock ya no cuenta en el total
+        if (result.getModifiedCount() > 0) {
+            adjustStockTotal(productId, quantity);
+        }
+    }
+
+    // Sobre la colección y no sobre la entidad: MongoTemplate no añade su $inc de version, así un cambio
+    // de stock no choca con un save() concurrente del producto. ETags y cachés comparan también stockTotal.
+    private void adjustStockTotal(String productId, int delta) {
+        mongoTemplate.updateFirst(
+                query(where("_id").is(productId)),
+                new Update().inc("stockTotal", delta),
+                mongoTemplate.getCollectionName(Product.class));
+        productCacheInvalidator.invalidate(productId);
+    }
+}
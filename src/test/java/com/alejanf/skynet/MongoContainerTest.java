@@ -0,0 +1,22 @@
+package com.alejanf.skynet;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Base para tests contra un Mongo real (replica set de un nodo); se omiten si no hay Docker
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MongoContainerTest {
+
+    // Un único contenedor compartido por todas las clases, igual que el contexto de Spring cacheado
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        MONGO.start();
+        registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("skynet"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.alejanf.skynet.load;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Carga concurrente sobre un endpoint que consulta Mongo en cada petición (listado por cursor, sin caché).
+// Solo se ejecuta con -Dload-tests=true; comparar la salida de las subclases de hilos de plataforma y virtuales.
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+abstract class CatalogLoadTestSupport extends MongoContainerTest {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int CONCURRENT_CLIENTS = 400;
+    private static final Duration RUN_TIME = Duration.ofSeconds(15);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    abstract String mode();
+
+    @BeforeEach
+    void seedCatalog() {
+        if (mongoTemplate.count(new Query(), Product.class) >= PRODUCTS) {
+            return;
+        }
+        mongoTemplate.dropCollection(Product.class);
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Load test product " + i);
+            product.setPrice(BigDecimal.valueOf(5 + i % 200));
+            product.setStockTotal(10);
+            product.setCategoryId("load");
+            product.setSlug("load-product-" + i);
+            products.add(product);
+        }
+        mongoTemplate.insertAll(products);
+    }
+
+    @Test
+    void catalogThroughputUnderHighConcurrency() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/products/cursor?sort=price&size=20")).build();
+
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<long[]> latenciesPerClient = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENT_CLIENTS; c++) {
+                long[] latencies = new long[10_000];
+                latenciesPerClient.add(latencies);
+                clients.submit(() -> {
+                    start.await();
+                    int n = 0;
+                    while (System.nanoTime() < deadline && n < latencies.length) {
+                        long t0 = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[n++] = System.nanoTime() - t0;
+                        if (response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            clients.shutdown();
+            assertThat(clients.awaitTermination(RUN_TIME.toSeconds() + 60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        long[] all = latenciesPerClient.stream().flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+        double seconds = RUN_TIME.toMillis() / 1000.0;
+        System.out.printf("[%s threads] %d clients: %.0f req/s, p50=%.1fms p99=%.1fms, %d errors%n",
+                mode(), CONCURRENT_CLIENTS, ok.get() / seconds,
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, failed.get());
+
+        assertThat(ok.get()).isPositive();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+}
@@ -0,0 +1,13 @@
+package com.alejanf.skynet.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsLoadTest extends CatalogLoadTestSupport {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,138 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.model.Cart;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.repository.CartRepository;
+import com.alejanf.skynet.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Una semana simulada de tráfico con retención de 2 días: el compactador corre cada hora simulada y se
+// informa del tamaño de la colección y de la latencia de búsqueda por userId al final de cada día
+@TestPropertySource(properties = {
+        "skynet.cart.retention=P2D",
+        "skynet.cart.compaction.interval-ms=3600000"
+})
+class CartExpirySimulationTest extends MongoContainerTest {
+
+    private static final Duration RETENTION = Duration.ofDays(2);
+    private static final int DAYS = 7;
+    private static final int NEW_CARTS_PER_HOUR = 30;
+    private static final int RETURNING_EDITS_PER_HOUR = 10;
+    private static final int LOOKUP_SAMPLES = 200;
+
+    @TestConfiguration
+    static class SimulatedClockConfig {
+
+        @Bean
+        @Primary
+        MutableClock simulatedClock() {
+            return new MutableClock(Instant.now(), ZoneId.systemDefault());
+        }
+    }
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartExpiryService cartExpiryService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MutableClock clock;
+
+    private String variantId;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Cart.class);
+        mongoTemplate.dropCollection(ProductVariant.class);
+        mongoTemplate.dropCollection(Product.class);
+        cartExpiryService.ensureTtlIndex();
+
+        Product product = new Product();
+        product.setName("Weekly tee");
+        product.setDescription("Simulation");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStockTotal(1_000_000);
+        product.setCategoryId("tees");
+        product.setSlug("weekly-tee");
+        product = mongoTemplate.insert(product);
+
+        ProductVariant variant = new ProductVariant();
+        variant.setProductId(product.getId());
+        variant.setSize("M");
+        variant.setPrice(new BigDecimal("9.99"));
+        variant.setStock(1_000_000);
+        variant.setSku("WEEK-M");
+        variantId = mongoTemplate.insert(variant).getId();
+    }
+
+    @Test
+    void abandonedCartsAreCompactedWithinRetention() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int created = 0;
+        int expired = 0;
+
+        System.out.println("day | carts | expired so far | lookup p50 (us) | lookup p99 (us)");
+        for (int day = 1; day <= DAYS; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                for (int i = 0; i < NEW_CARTS_PER_HOUR; i++) {
+                    cartService.addItem("user-" + created++, variantId, 1);
+                }
+                // Usuarios que vuelven a su carrito: renuevan updatedAt
+                for (int i = 0; i < RETURNING_EDITS_PER_HOUR; i++) {
+                    cartService.addItem("user-" + random.nextInt(created), variantId, 1);
+                }
+                clock.advance(Duration.ofHours(1));
+                expired += cartExpiryService.compactExpiredCarts();
+            }
+
+            long[] latencies = new long[LOOKUP_SAMPLES];
+            for (int i = 0; i < LOOKUP_SAMPLES; i++) {
+                String userId = "user-" + random.nextInt(created);
+                long start = System.nanoTime();
+                cartRepository.findByUserId(userId);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%3d | %5d | %13d | %15d | %15d%n", day, mongoTemplate.count(new Query(), Cart.class),
+                    expired, latencies[LOOKUP_SAMPLES / 2] / 1000,
+                    latencies[LOOKUP_SAMPLES * 99 / 100] / 1000);
+        }
+
+        long remaining = mongoTemplate.count(new Query(), Cart.class);
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(RETENTION);
+
+        // Solo sobreviven los carritos tocados dentro de la ventana de retención
+        assertThat(mongoTemplate.count(query(where("updatedAt").lt(cutoff)), Cart.class)).isZero();
+        assertThat(remaining).isLessThanOrEqualTo((RETENTION.toHours() + 1) * (NEW_CARTS_PER_HOUR + RETURNING_EDITS_PER_HOUR));
+        assertThat(expired).isEqualTo((int) (created - remaining));
+    }
+}
@@ -0,0 +1,210 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.model.Cart;
+import com.alejanf.skynet.model.CartItem;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Ráfagas de cambios de cantidad: escritura directa frente al buffer de escritura diferida, y varios hilos
+// sobre un mismo carrito para forzar los reintentos CAS. Los totales mantenidos con $inc deben coincidir
+// con la suma de las líneas.
+class CartServiceThroughputTest extends MongoContainerTest {
+
+    private static final int USERS = 32;
+    private static final int VARIANTS = 5;
+    private static final int EDITS_PER_USER = 200;
+    private static final int SHARED_CART_THREADS = 8;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartWriteBuffer cartWriteBuffer;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<String> variantIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Cart.class);
+        mongoTemplate.dropCollection(ProductVariant.class);
+        mongoTemplate.dropCollection(Product.class);
+        mongoTemplate.indexOps(Cart.class).ensureIndex(new Index("userId", Sort.Direction.ASC).unique());
+
+        Product product = new Product();
+        product.setName("Cart tee");
+        product.setDescription("Cart throughput");
+        product.setPrice(new BigDecimal("12.50"));
+        product.setStockTotal(1000);
+        product.setCategoryId("tees");
+        product.setSlug("cart-tee");
+        product = mongoTemplate.insert(product);
+
+        variantIds.clear();
+        for (int i = 0; i < VARIANTS; i++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setProductId(product.getId());
+            variant.setSize("S" + i);
+            variant.setPrice(new BigDecimal("12.50").add(BigDecimal.valueOf(i)));
+            variant.setStock(1000);
+            variant.setSku("CART-" + i);
+            variantIds.add(mongoTemplate.insert(variant).getId());
+        }
+    }
+
+    @Test
+    void directEditsKeepTotalsConsistent() throws Exception {
+        double seconds = runEdits((userId, variantId, quantity) -> cartService.updateQuantity(userId, variantId, quantity));
+        report("direct", seconds);
+        assertTotalsConsistent();
+    }
+
+    @Test
+    void bufferedEditsKeepTotalsConsistent() throws Exception {
+        double seconds = runEdits(cartWriteBuffer::setQuantity);
+        // Una línea que no está en el carrito no se acepta en el buffer
+        assertThat(cartWriteBuffer.setQuantity("user-0", "missing-variant", 3)).isFalse();
+        long flushStart = System.nanoTime();
+        cartWriteBuffer.flush();
+        double flushSeconds = (System.nanoTime() - flushStart) / 1_000_000_000.0;
+        report("write-behind", seconds);
+        System.out.printf("Cart write-behind flush: %.3fs%n", flushSeconds);
+        assertTotalsConsistent();
+    }
+
+    @Test
+    void concurrentEditsOnSameCartKeepTotalsConsistent() throws Exception {
+        String userId = "shared-user";
+        for (String variantId : variantIds) {
+            cartService.addItem(userId, variantId, 1);
+        }
+
+        // Todos los hilos leen y reescriben las mismas líneas: updateQuantity y removeItem pierden el CAS a menudo
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(SHARED_CART_THREADS);
+        List<Future<Object>> workers = new ArrayList<>();
+        for (int t = 0; t < SHARED_CART_THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < EDITS_PER_USER; i++) {
+                    String variantId = variantIds.get(random.nextInt(VARIANTS));
+                    try {
+                        switch (random.nextInt(5)) {
+                            case 0 -> cartService.removeItem(userId, variantId);
+                            case 1 -> cartService.addItem(userId, variantId, 1);
+                            default -> cartService.updateQuantity(userId, variantId, 1 + random.nextInt(9));
+                        }
+                    } catch (RuntimeException e) {
+                        // Reintentos agotados o línea retirada por otro hilo: errores esperados, no inconsistencias
+                        String message = String.valueOf(e.getMessage());
+                        if (message.startsWith("Cart update conflict")) {
+                            conflicts.incrementAndGet();
+                        } else if (!message.startsWith("Item not in cart")) {
+                            throw e;
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<Object> worker : workers) {
+            worker.get();
+        }
+        System.out.printf("Shared cart: %d edits from %d threads, %d gave up after retries%n",
+                SHARED_CART_THREADS * EDITS_PER_USER, SHARED_CART_THREADS, conflicts.get());
+
+        Cart cart = mongoTemplate.findOne(Query.query(where("userId").is(userId)), Cart.class);
+        assertThat(cart).isNotNull();
+        assertThat(cart.getItems()).extracting(CartItem::getVariantId).doesNotHaveDuplicates();
+        assertCartConsistent(cart);
+    }
+
+    private double runEdits(QuantityEdit edit) throws Exception {
+        // Cada usuario parte de un carrito con todas las variantes
+        for (int u = 0; u < USERS; u++) {
+            for (String variantId : variantIds) {
+                cartService.addItem("user-" + u, variantId, 1);
+            }
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(USERS);
+        for (int u = 0; u < USERS; u++) {
+            String userId = "user-" + u;
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < EDITS_PER_USER; i++) {
+                    String variantId = variantIds.get(random.nextInt(VARIANTS));
+                    edit.apply(userId, variantId, 1 + random.nextInt(9));
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return (System.nanoTime() - startedAt) / 1_000_000_000.0;
+    }
+
+    private void report(String mode, double seconds) {
+        int edits = USERS * EDITS_PER_USER;
+        System.out.printf("Cart edits (%s): %d edits from %d users in %.2fs (%.0f edits/s)%n",
+                mode, edits, USERS, seconds, edits / seconds);
+    }
+
+    private void assertTotalsConsistent() {
+        List<Cart> carts = mongoTemplate.find(new Query(), Cart.class);
+        assertThat(carts).hasSize(USERS);
+        for (Cart cart : carts) {
+            assertThat(cart.getItems()).hasSize(VARIANTS);
+            assertCartConsistent(cart);
+        }
+    }
+
+    private void assertCartConsistent(Cart cart) {
+        BigDecimal expectedPrice = cart.getItems().stream()
+                .map(CartItem::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        int expectedQuantity = cart.getItems().stream().mapToInt(CartItem::getQuantity).sum();
+        assertThat(cart.getTotalPrice()).isEqualByComparingTo(expectedPrice);
+        assertThat(cart.getTotalQuantity()).isEqualTo(expectedQuantity);
+    }
+
+    @FunctionalInterface
+    private interface QuantityEdit {
+        void apply(String userId, String variantId, int quantity);
+    }
+}
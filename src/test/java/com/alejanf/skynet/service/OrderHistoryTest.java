@@ -0,0 +1,138 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.config.MongoIndexInitializer;
+import com.alejanf.skynet.dto.CursorPageDTO;
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderProduct;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paginación keyset del historial: cada pedido aparece una sola vez, en orden, aunque haya empates en createdAt
+class OrderHistoryTest extends MongoContainerTest {
+
+    private static final int ORDERS = 57;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Order.class);
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < ORDERS; i++) {
+            // Tres pedidos por milisegundo para forzar el desempate por _id
+            mongoTemplate.insert(order("history-user", base.plusNanos((i / 3) * 1_000_000L)));
+            mongoTemplate.insert(order("other-user", base.plusNanos(i * 1_000_000L)));
+        }
+        mongoIndexInitializer.ensureIndexes();
+    }
+
+    @Test
+    void pagesThroughHistoryWithoutGapsOrDuplicates() {
+        List<OrderDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<OrderDTO> page = orderService.getUserOrders("history-user", 10, cursor);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(6);
+        assertThat(seen).hasSize(ORDERS).allMatch(order -> order.getUserId().equals("history-user"));
+        Set<String> ids = new HashSet<>();
+        seen.forEach(order -> ids.add(order.getId()));
+        assertThat(ids).hasSize(ORDERS);
+        for (int i = 1; i < seen.size(); i++) {
+            OrderDTO previous = seen.get(i - 1);
+            OrderDTO current = seen.get(i);
+            assertThat(current.getCreatedAt()).isBeforeOrEqualTo(previous.getCreatedAt());
+            if (current.getCreatedAt().equals(previous.getCreatedAt())) {
+                assertThat(current.getId()).isLessThan(previous.getId());
+            }
+        }
+    }
+
+    @Test
+    void historyQueryUsesUserIndex() {
+        String cursor = orderService.getUserOrders("history-user", 10, null).getNextCursor();
+        assertThat(cursor).isNotNull();
+
+        // Se captura con el profiler la consulta keyset que envía findByUserIdBefore y se explica tal cual
+        MongoDatabase db = mongoTemplate.getDb();
+        String collection = mongoTemplate.getCollectionName(Order.class);
+        db.runCommand(new Document("profile", 2));
+        try {
+            orderService.getUserOrders("history-user", 10, cursor);
+        } finally {
+            db.runCommand(new Document("profile", 0));
+        }
+        Document sent = db.getCollection("system.profile")
+                .find(new Document("ns", db.getName() + "." + collection)
+                        .append("command.find", collection)
+                        .append("command.filter.userId", "history-user")
+                        .append("command.filter.$or", new Document("$exists", true)))
+                .sort(new Document("ts", -1))
+                .first();
+        assertThat(sent).isNotNull();
+        Document command = sent.get("command", Document.class);
+
+        Document find = new Document("find", collection)
+                .append("filter", command.get("filter"))
+                .append("sort", command.get("sort"))
+                .append("limit", command.get("limit"));
+        Document explain = db.runCommand(new Document("explain", find).append("verbosity", "executionStats"));
+        String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+        Document stats = explain.get("executionStats", Document.class);
+
+        assertThat(winningPlan).contains("userId_createdAt").doesNotContain("COLLSCAN").doesNotContain("\"SORT\"");
+        assertThat(stats.getInteger("nReturned")).isEqualTo(11);
+        // Como mucho una página (más el desempate) por cada rama del $or, nunca el resto del historial
+        assertThat(stats.getInteger("totalKeysExamined")).isLessThanOrEqualTo(2 * 11 + 2);
+    }
+
+    private Order order(String userId, LocalDateTime createdAt) {
+        OrderProduct line = new OrderProduct();
+        line.setProductId("product");
+        line.setVariantId("variant");
+        line.setQuantity(1);
+        line.setPrice(new BigDecimal("10.00"));
+
+        Address address = new Address();
+        address.setStreet("Gran Via 1");
+        address.setCity("Madrid");
+        address.setPostalCode("28013");
+        address.setCountry("ES");
+
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setOrderProducts(List.of(line));
+        order.setDeliveryAddress(address);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
@@ -0,0 +1,254 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.dto.CreateOrderDTO;
+import com.alejanf.skynet.dto.CreateOrderProductDTO;
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderEventType;
+import com.alejanf.skynet.model.OutboxEvent;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.model.Reservation;
+import com.alejanf.skynet.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Outbox de pedidos con handlers en memoria: entrega en orden por pedido pese a fallos, sin repetir
+// eventos a los handlers que ya los procesaron, y apartando los eventos que agotan los reintentos
+@TestPropertySource(properties = {
+        "skynet.outbox.dispatch.enabled=false",
+        "skynet.outbox.retry.max-attempts=3",
+        "skynet.reservations.sweep.interval-ms=3600000"
+})
+class OrderOutboxDispatcherTest extends MongoContainerTest {
+
+    private static final int ORDERS = 30;
+
+    @TestConfiguration
+    static class InMemoryHandlersConfig {
+
+        @Bean
+        @Primary
+        MutableClock simulatedClock() {
+            return new MutableClock(Instant.now(), ZoneId.systemDefault());
+        }
+
+        @Bean
+        InMemoryOrderEventHandler flakyHandler() {
+            return new InMemoryOrderEventHandler("flaky");
+        }
+
+        @Bean
+        InMemoryOrderEventHandler stableHandler() {
+            return new InMemoryOrderEventHandler("stable");
+        }
+    }
+
+    // Guarda lo recibido por pedido; puede fallar los primeros intentos de un tipo de evento
+    // o siempre para ciertos pedidos
+    static class InMemoryOrderEventHandler implements OrderEventHandler {
+
+        private final String name;
+        final Map<String, List<OrderEventType>> received = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        final Set<String> poisonedOrders = ConcurrentHashMap.newKeySet();
+        volatile OrderEventType flakyType;
+        volatile int failuresPerEvent;
+
+        InMemoryOrderEventHandler(String name) {
+            this.name = name;
+        }
+
+        void reset() {
+            received.clear();
+            calls.clear();
+            poisonedOrders.clear();
+            flakyType = null;
+            failuresPerEvent = 0;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void handle(OrderEvent event) {
+            int call = calls.computeIfAbsent(event.eventId(), id -> new AtomicInteger()).incrementAndGet();
+            if (event.type() == OrderEventType.PLACED && poisonedOrders.contains(event.order().getId())) {
+                throw new IllegalStateException("poisoned");
+            }
+            if (event.type() == flakyType && call <= failuresPerEvent) {
+                throw new IllegalStateException("temporary failure " + call);
+            }
+            received.computeIfAbsent(event.order().getId(), id -> new ArrayList<>()).add(event.type());
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderOutboxDispatcher dispatcher;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MutableClock clock;
+
+    @Autowired
+    @Qualifier("flakyHandler")
+    private InMemoryOrderEventHandler flaky;
+
+    @Autowired
+    @Qualifier("stableHandler")
+    private InMemoryOrderEventHandler stable;
+
+    private Product product;
+    private ProductVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Order.class);
+        mongoTemplate.dropCollection(Reservation.class);
+        mongoTemplate.dropCollection(ProductVariant.class);
+        mongoTemplate.dropCollection(Product.class);
+        flaky.reset();
+        stable.reset();
+
+        product = new Product();
+        product.setName("Outbox tee");
+        product.setDescription("Order events");
+        product.setPrice(new BigDecimal("12.00"));
+        product.setStockTotal(1000);
+        product.setCategoryId("tees");
+        product.setSlug("outbox-tee");
+        product = mongoTemplate.insert(product);
+
+        variant = new ProductVariant();
+        variant.setProductId(product.getId());
+        variant.setSize("S");
+        variant.setPrice(new BigDecimal("12.00"));
+        variant.setStock(1000);
+        variant.setSku("OBX-S");
+        variant = mongoTemplate.insert(variant);
+    }
+
+    @Test
+    void deliversEventsInOrderPerOrderDespiteRetries() {
+        // PLACED falla dos veces en uno de los handlers: el PAID/CANCELLED que va detrás tiene que esperar
+        flaky.flakyType = OrderEventType.PLACED;
+        flaky.failuresPerEvent = 2;
+
+        Map<String, List<OrderEventType>> expected = new HashMap<>();
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDTO order = orderService.placeOrder("outbox-user", order());
+            switch (i % 3) {
+                case 0 -> {
+                    orderService.payOrder(order.getId());
+                    expected.put(order.getId(), List.of(OrderEventType.PLACED, OrderEventType.PAID));
+                }
+                case 1 -> {
+                    orderService.cancelOrder(order.getId(), "outbox-user");
+                    expected.put(order.getId(), List.of(OrderEventType.PLACED, OrderEventType.CANCELLED));
+                }
+                default -> expected.put(order.getId(), List.of(OrderEventType.PLACED));
+            }
+        }
+
+        int passes = drain();
+
+        System.out.printf("Outbox: %d orders drained in %d passes%n", ORDERS, passes);
+        assertThat(flaky.received).isEqualTo(expected);
+        assertThat(stable.received).isEqualTo(expected);
+        // El handler estable no recibe de nuevo los eventos que se reintentan por culpa del otro
+        assertThat(stable.calls.values()).allMatch(calls -> calls.get() == 1);
+        assertOutboxesDrained();
+        assertThat(mongoTemplate.findAll(Order.class)).allMatch(order -> order.getOutboxDeadLetters() == null);
+    }
+
+    @Test
+    void parksPoisonEventAndKeepsDeliveringTheRest() {
+        OrderDTO order = orderService.placeOrder("outbox-user", order());
+        orderService.payOrder(order.getId());
+        flaky.poisonedOrders.add(order.getId());
+
+        drain();
+
+        assertThat(flaky.received.get(order.getId())).containsExactly(OrderEventType.PAID);
+        assertThat(stable.received.get(order.getId())).containsExactly(OrderEventType.PLACED, OrderEventType.PAID);
+        assertThat(flaky.calls).hasSize(2);
+        assertOutboxesDrained();
+
+        List<OutboxEvent> deadLetters = mongoTemplate.findById(order.getId(), Order.class).getOutboxDeadLetters();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getType()).isEqualTo(OrderEventType.PLACED);
+        assertThat(deadLetters.get(0).getLastError()).isEqualTo("poisoned");
+    }
+
+    // Pasadas del dispatcher avanzando el reloj más allá del backoff hasta vaciar todas las outbox
+    private int drain() {
+        int passes = 0;
+        while (mongoTemplate.exists(query(where("outboxDueAt").exists(true)), Order.class)) {
+            assertThat(passes).as("outbox not drained").isLessThan(50);
+            dispatcher.dispatch();
+            clock.advance(Duration.ofMinutes(1));
+            passes++;
+        }
+        return passes;
+    }
+
+    private void assertOutboxesDrained() {
+        assertThat(mongoTemplate.findAll(Order.class)).allSatisfy(order -> {
+            assertThat(order.getOutbox()).isEmpty();
+            assertThat(order.getOutboxDueAt()).isNull();
+            assertThat(order.getOutboxLockedUntil()).isNull();
+            assertThat(order.getOutboxAttempts()).isNull();
+        });
+    }
+
+    private CreateOrderDTO order() {
+        CreateOrderProductDTO line = new CreateOrderProductDTO();
+        line.setProductId(product.getId());
+        line.setVariantId(variant.getId());
+        line.setQuantity(1);
+
+        Address address = new Address();
+        address.setStreet("Gran Via 1");
+        address.setCity("Madrid");
+        address.setPostalCode("28013");
+        address.setCountry("ES");
+
+        CreateOrderDTO order = new CreateOrderDTO();
+        order.setOrderProducts(List.of(line));
+        order.setDeliveryAddress(address);
+        order.setPaymentMethod("CREDIT_CARD");
+        return order;
+    }
+}
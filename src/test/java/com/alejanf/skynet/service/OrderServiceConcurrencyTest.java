@@ -0,0 +1,124 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.dto.CreateOrderDTO;
+import com.alejanf.skynet.dto.CreateOrderProductDTO;
+import com.alejanf.skynet.exception.InsufficientStockException;
+import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderServiceConcurrencyTest extends MongoContainerTest {
+
+    private static final int STOCK = 200;
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Product product;
+    private ProductVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Order.class);
+        mongoTemplate.dropCollection(ProductVariant.class);
+        mongoTemplate.dropCollection(Product.class);
+
+        product = new Product();
+        product.setName("Flash sale tee");
+        product.setDescription("Limited run");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStockTotal(STOCK);
+        product.setCategoryId("tees");
+        product.setSlug("flash-sale-tee");
+        product = mongoTemplate.insert(product);
+
+        variant = new ProductVariant();
+        variant.setProductId(product.getId());
+        variant.setSize("M");
+        variant.setPrice(new BigDecimal("19.99"));
+        variant.setStock(STOCK);
+        variant.setSku("FST-M");
+        variant = mongoTemplate.insert(variant);
+    }
+
+    @Test
+    void concurrentOrdersOnOneSkuNeverOversell() throws Exception {
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            String userId = "user-" + t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        orderService.placeOrder(userId, orderForOneUnit());
+                        placed.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        System.out.printf("Order placement: %d attempts on one SKU with %d threads in %.2fs (%.0f attempts/s), %d placed, %d rejected%n",
+                attempts, THREADS, seconds, attempts / seconds, placed.get(), rejected.get());
+
+        assertThat(placed.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(attempts - STOCK);
+        assertThat(mongoTemplate.findById(variant.getId(), ProductVariant.class).getStock()).isZero();
+        assertThat(mongoTemplate.findById(product.getId(), Product.class).getStockTotal()).isZero();
+        assertThat(mongoTemplate.count(new Query(), Order.class)).isEqualTo(STOCK);
+    }
+
+    private CreateOrderDTO orderForOneUnit() {
+        CreateOrderProductDTO line = new CreateOrderProductDTO();
+        line.setProductId(product.getId());
+        line.setVariantId(variant.getId());
+        line.setQuantity(1);
+
+        Address address = new Address();
+        address.setStreet("Gran Via 1");
+        address.setCity("Madrid");
+        address.setPostalCode("28013");
+        address.setCountry("ES");
+
+        CreateOrderDTO order = new CreateOrderDTO();
+        order.setOrderProducts(List.of(line));
+        order.setDeliveryAddress(address);
+        order.setPaymentMethod("CREDIT_CARD");
+        return order;
+    }
+}
@@ -0,0 +1,154 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.config.MongoIndexInitializer;
+import com.alejanf.skynet.dto.ProductSearchCriteria;
+import com.alejanf.skynet.model.Product;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Comprueba con explain() que todas las combinaciones de filtros y ordenación soportadas usan un índice que
+// acota los filtros de igualdad: "sin COLLSCAN" no basta, porque un índice de ordenación {campo, _id}
+// recorrido entero también lo cumple
+class ProductSearchIndexTest extends MongoContainerTest {
+
+    private static final int PRODUCTS = 300;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Product.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            product.setStockTotal(i % 5);
+            product.setCategoryId("category-" + (i % 3));
+            product.setTags(new HashSet<>(List.of("tag-" + (i % 4), "tag-" + (i % 7))));
+            product.setRating((double) (i % 5));
+            product.setSlug("product-" + i);
+            product.setActive(i % 10 != 0);
+            products.add(product);
+        }
+        mongoTemplate.insertAll(products);
+        mongoIndexInitializer.ensureIndexes();
+    }
+
+    @Test
+    void everyFilterCombinationUsesAnIndex() {
+        List<String> unboundedScans = new ArrayList<>();
+
+        // Cada bit activa un filtro: categoría, tags, precio, rating, stock, active
+        for (int mask = 0; mask < (1 << 6); mask++) {
+            ProductSearchCriteria criteria = criteria(mask);
+            for (ProductSortKey sortKey : ProductSortKey.values()) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    Query query = productSearchService.buildQuery(criteria, sortKey, direction)
+                            .with(PageRequest.of(0, PAGE_SIZE));
+                    Document explain = explain(query);
+                    String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+                    long keysExamined = explain.get("executionStats", Document.class).get("totalKeysExamined", Number.class).longValue();
+                    // Un índice que no usa las igualdades como prefijo examina más claves que esta cota
+                    long bound = equalityBound(criteria);
+                    if (winningPlan.contains("COLLSCAN") || keysExamined > bound) {
+                        unboundedScans.add(query.getQueryObject().toJson() + " sort " + query.getSortObject().toJson()
+                                + ": " + keysExamined + " keys, bound " + bound);
+                    }
+                }
+            }
+        }
+
+        assertThat(unboundedScans).isEmpty();
+    }
+
+    @Test
+    void sortsBreakTiesById() {
+        Query query = productSearchService.buildQuery(new ProductSearchCriteria(), ProductSortKey.RATING, Sort.Direction.DESC);
+        assertThat(query.getSortObject()).containsEntry("rating", -1).containsEntry("_id", -1);
+    }
+
+    private ProductSearchCriteria criteria(int mask) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        if ((mask & 1) != 0) {
+            criteria.setCategoryId("category-1");
+        }
+        if ((mask & 2) != 0) {
+            // Un solo tag: con varios, el índice solo acota el primero y la cota de igualdad dejaría de ser exacta
+            criteria.setTags(List.of("tag-1"));
+        }
+        if ((mask & 4) != 0) {
+            criteria.setMinPrice(BigDecimal.valueOf(15));
+            criteria.setMaxPrice(BigDecimal.valueOf(40));
+        }
+        if ((mask & 8) != 0) {
+            criteria.setMinRating(3.0);
+        }
+        if ((mask & 16) != 0) {
+            criteria.setInStock(true);
+        }
+        criteria.setActive((mask & 32) != 0 ? Boolean.TRUE : null);
+        return criteria;
+    }
+
+    // Documentos que cumplen el prefijo de igualdad más selectivo que ofrece algún índice (categoría o tag,
+    // más active), con un margen por los límites del recorrido
+    private long equalityBound(ProductSearchCriteria criteria) {
+        List<ProductSearchCriteria> prefixes = new ArrayList<>();
+        if (criteria.getCategoryId() != null) {
+            ProductSearchCriteria category = new ProductSearchCriteria();
+            category.setCategoryId(criteria.getCategoryId());
+            category.setActive(criteria.getActive());
+            prefixes.add(category);
+        }
+        if (criteria.getTags() != null) {
+            ProductSearchCriteria tags = new ProductSearchCriteria();
+            tags.setTags(criteria.getTags());
+            tags.setActive(criteria.getActive());
+            prefixes.add(tags);
+        }
+        if (prefixes.isEmpty()) {
+            ProductSearchCriteria active = new ProductSearchCriteria();
+            active.setActive(criteria.getActive());
+            prefixes.add(active);
+        }
+        return prefixes.stream()
+                .mapToLong(prefix -> mongoTemplate.count(
+                        productSearchService.buildQuery(prefix, ProductSortKey.CREATED_AT, Sort.Direction.DESC), Product.class))
+                .min()
+                .orElseThrow() + 2;
+    }
+
+    private Document explain(Query query) {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject())
+                .skip((int) query.getSkip())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+}
@@ -0,0 +1,210 @@
+package com.alejanf.skynet.service;
+
+import com.alejanf.skynet.MongoContainerTest;
+import com.alejanf.skynet.dto.CreateOrderDTO;
+import com.alejanf.skynet.dto.CreateOrderProductDTO;
+import com.alejanf.skynet.dto.OrderDTO;
+import com.alejanf.skynet.exception.InsufficientStockException;
+import com.alejanf.skynet.exception.OrderStateException;
+import com.alejanf.skynet.model.Address;
+import com.alejanf.skynet.model.Order;
+import com.alejanf.skynet.model.OrderStatus;
+import com.alejanf.skynet.model.Product;
+import com.alejanf.skynet.model.ProductVariant;
+import com.alejanf.skynet.model.Reservation;
+import com.alejanf.skynet.model.ReservationStatus;
+import com.alejanf.skynet.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Pedidos que se pagan, se cancelan o se abandonan mientras el barrido caduca retenciones en paralelo
+// (el reloj simulado avanza a saltos). Al final el stock debe cuadrar exactamente con lo pagado.
+class ReservationConcurrencyTest extends MongoContainerTest {
+
+    private static final int STOCK = 100;
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 30;
+
+    @TestConfiguration
+    static class SimulatedClockConfig {
+
+        @Bean
+        @Primary
+        MutableClock simulatedClock() {
+            return new MutableClock(Instant.now(), ZoneId.systemDefault());
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ReservationSweeper reservationSweeper;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MutableClock clock;
+
+    private Product product;
+    private ProductVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Order.class);
+        mongoTemplate.dropCollection(Reservation.class);
+        mongoTemplate.dropCollection(ProductVariant.class);
+        mongoTemplate.dropCollection(Product.class);
+
+        product = new Product();
+        product.setName("Checkout tee");
+        product.setDescription("Reservations");
+        product.setPrice(new BigDecimal("15.00"));
+        product.setStockTotal(STOCK);
+        product.setCategoryId("tees");
+        product.setSlug("checkout-tee");
+        product = mongoTemplate.insert(product);
+
+        variant = new ProductVariant();
+        variant.setProductId(product.getId());
+        variant.setSize("L");
+        variant.setPrice(new BigDecimal("15.00"));
+        variant.setStock(STOCK);
+        variant.setSku("CHK-L");
+        variant = mongoTemplate.insert(variant);
+    }
+
+    @Test
+    void stockMatchesPaidOrdersUnderConcurrentPayCancelAndExpiry() throws Exception {
+        AtomicInteger paid = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger payConflicts = new AtomicInteger();
+        AtomicInteger outOfStock = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService sweeper = Executors.newSingleThreadExecutor();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        // Barrido concurrente: el reloj salta 5 minutos (retención de 15) y caducan las retenciones más viejas
+        sweeper.submit(() -> {
+            start.await();
+            while (running.get()) {
+                clock.advance(Duration.ofMinutes(5));
+                reservationSweeper.sweep();
+                Thread.sleep(5);
+            }
+            return null;
+        });
+
+        for (int t = 0; t < THREADS; t++) {
+            String userId = "user-" + t;
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    OrderDTO order;
+                    try {
+                        order = orderService.placeOrder(userId, order(1 + random.nextInt(3)));
+                    } catch (InsufficientStockException e) {
+                        outOfStock.incrementAndGet();
+                        continue;
+                    }
+                    int action = random.nextInt(10);
+                    try {
+                        if (action < 4) {
+                            orderService.payOrder(order.getId());
+                            paid.incrementAndGet();
+                        } else if (action < 7) {
+                            orderService.cancelOrder(order.getId(), userId);
+                            cancelled.incrementAndGet();
+                        }
+                        // El resto se abandona y lo caduca el barrido
+                    } catch (OrderStateException e) {
+                        payConflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        running.set(false);
+        sweeper.shutdown();
+        assertThat(sweeper.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        // Cierre: todo lo que quede pendiente caduca
+        clock.advance(Duration.ofHours(1));
+        while (orderService.expirePendingOrders(500) + reservationService.resolveOrphans(500) > 0) {
+            // Hasta vaciar
+        }
+
+        System.out.printf("Reservations: %d paid, %d cancelled, %d pay/cancel conflicts, %d out of stock in %.2fs%n",
+                paid.get(), cancelled.get(), payConflicts.get(), outOfStock.get(), seconds);
+
+        List<Reservation> reservations = mongoTemplate.findAll(Reservation.class);
+        int committedUnits = reservations.stream()
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.COMMITTED)
+                .mapToInt(Reservation::getQuantity).sum();
+        int paidUnits = mongoTemplate.find(query(where("status").is(OrderStatus.PAID)), Order.class).stream()
+                .mapToInt(Order::getTotalQuantity).sum();
+
+        assertThat(reservations).noneMatch(reservation -> reservation.getStatus() == ReservationStatus.HELD);
+        assertThat(mongoTemplate.count(query(where("status").is(OrderStatus.PENDING)), Order.class)).isZero();
+        assertThat(mongoTemplate.count(query(where("status").is(OrderStatus.PAID)), Order.class)).isEqualTo(paid.get());
+        assertThat(committedUnits).isEqualTo(paidUnits);
+
+        int stock = mongoTemplate.findById(variant.getId(), ProductVariant.class).getStock();
+        assertThat(stock).isGreaterThanOrEqualTo(0);
+        assertThat(stock).isEqualTo(STOCK - committedUnits);
+        assertThat(mongoTemplate.findById(product.getId(), Product.class).getStockTotal()).isEqualTo(stock);
+    }
+
+    private CreateOrderDTO order(int quantity) {
+        CreateOrderProductDTO line = new CreateOrderProductDTO();
+        line.setProductId(product.getId());
+        line.setVariantId(variant.getId());
+        line.setQuantity(quantity);
+
+        Address address = new Address();
+        address.setStreet("Gran Via 1");
+        address.setCity("Madrid");
+        address.setPostalCode("28013");
+        address.setCountry("ES");
+
+        CreateOrderDTO order = new CreateOrderDTO();
+        order.setOrderProducts(List.of(line));
+        order.setDeliveryAddress(address);
+        order.setPaymentMethod("CREDIT_CARD");
+        return order;
+    }
+}
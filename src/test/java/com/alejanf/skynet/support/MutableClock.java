@@ -0,0 +1,38 @@
+package com.alejanf.skynet.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Reloj controlable para simular el paso del tiempo en tests
+public class MutableClock extends Clock {
+
+    private final AtomicReference<Instant> now;
+    private final ZoneId zone;
+
+    public MutableClock(Instant start, ZoneId zone) {
+        this.now = new AtomicReference<>(start);
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new MutableClock(now.get(), zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return now.get();
+    }
+}